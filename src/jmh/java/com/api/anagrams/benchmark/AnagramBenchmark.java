@@ -0,0 +1,202 @@
+package com.api.anagrams.benchmark;
+
+import com.api.anagrams.anagram.AnagramGroups;
+import com.api.anagrams.anagram.AnagramImpl;
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.anagram.SubAnagramIndex;
+import com.api.anagrams.model.Word;
+import com.api.anagrams.service.DictionaryStats;
+import com.api.anagrams.service.WordStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the anagram hot paths over the bundled dictionary and synthetic
+ * dictionaries of 100k and 1M words.
+ *
+ * Run with {@code mvn -P benchmark -DskipTests verify}; results are written to
+ * target/jmh-result.json together with the GC profiler's allocation rate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class AnagramBenchmark {
+
+    private static final String LETTERS = "eeeeeeeeeeeetttttttttaaaaaaaaoooooooiiiiiiinnnnnnnsssssshhhhhhrrrrrrddddlllluuucccmmmwwffggyyppbbvkjxqz";
+
+    @Param({"dictionary", "100000", "1000000"})
+    public String size;
+
+    private String[] words;
+
+    private long[] fingerprints;
+
+    private AnagramGroups groups;
+
+    private DictionaryStats stats;
+
+    private WordStore store;
+
+    private SubAnagramIndex subAnagrams;
+
+    private String[] racks;
+
+    private int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        List<String> values = size.equals("dictionary") ? dictionary() : synthetic(Integer.parseInt(size));
+
+        words = values.toArray(new String[0]);
+        fingerprints = new long[words.length];
+        for (int i = 0; i < words.length; i++)
+            fingerprints[i] = AnagramImpl.fingerprint(words[i]);
+        groups = AnagramGroups.of(values);
+
+        List<Word> dictionary = new ArrayList<>();
+        for (int i = 0; i < words.length; i++)
+            dictionary.add(word(i));
+        store = new WordStore();
+        store.wordsAdded(dictionary);
+        stats = new DictionaryStats();
+        ReflectionTestUtils.setField(stats, "anagramIndex", new AnagramIndex());
+        ReflectionTestUtils.setField(stats, "wordStore", store);
+        stats.wordsAdded(dictionary);
+        subAnagrams = new SubAnagramIndex();
+        subAnagrams.wordsAdded(dictionary);
+
+        List<String> racks = synthetic(1024);
+        for (int i = 0; i < racks.size(); i++)
+            racks.set(i, racks.get(i) + racks.get(racks.size() - 1 - i));
+        this.racks = racks.toArray(new String[0]);
+    }
+
+    @Benchmark
+    public String pairwiseComparison() {
+        int i = next();
+
+        return AnagramImpl.Anagram(words[i], words[words.length - 1 - i]);
+    }
+
+    @Benchmark
+    public String pairwiseFingerprintComparison() {
+        int i = next();
+        int j = words.length - 1 - i;
+
+        return AnagramImpl.Anagram(words[i], fingerprints[i], words[j], fingerprints[j]);
+    }
+
+    @Benchmark
+    public String signature() {
+
+        return AnagramImpl.signature(words[next()]);
+    }
+
+    @Benchmark
+    public AnagramGroups fullGrouping() {
+
+        return AnagramGroups.of(Arrays.asList(words));
+    }
+
+    @Benchmark
+    public void largestClass(Blackhole bh) {
+        bh.consume(groups.getLargestClass());
+        bh.consume(groups.getHistogram());
+    }
+
+    @Benchmark
+    public Object singleWordLookup() {
+
+        return groups.getAnagrams(words[next()]);
+    }
+
+    @Benchmark
+    public List<String> subAnagramSearch() {
+
+        return subAnagrams.getSubAnagrams(racks[next() & 1023], 100);
+    }
+
+    @Benchmark
+    public List<String> stats() {
+
+        return stats.getStats();
+    }
+
+    @Benchmark
+    public long statsUpdate() {
+        List<Word> removed = Collections.singletonList(word(next()));
+        store.wordsRemoved(removed);
+        stats.wordsRemoved(removed);
+        store.wordsAdded(removed);
+        stats.wordsAdded(removed);
+
+        return stats.getCount();
+    }
+
+    @Benchmark
+    public List<Word> page() {
+
+        return store.page(next(), 1000);
+    }
+
+    private Word word(int i) {
+        Word w = new Word();
+        w.setId(i + 1);
+        w.setValue(words[i]);
+
+        return w;
+    }
+
+    private int next() {
+        if (++cursor == words.length)
+            cursor = 0;
+
+        return cursor;
+    }
+
+    private static List<String> dictionary() throws IOException {
+        List<String> values = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                AnagramBenchmark.class.getClassLoader().getResourceAsStream("dictionary.txt"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                for (String w : line.trim().split("\\s+")) {
+                    if (!w.isEmpty())
+                        values.add(w);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private static List<String> synthetic(int count) {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            char[] letters = new char[3 + random.nextInt(10)];
+            for (int k = 0; k < letters.length; k++)
+                letters[k] = LETTERS.charAt(random.nextInt(LETTERS.length()));
+            values.add(new String(letters));
+        }
+
+        return values;
+    }
+}
@@ -2,6 +2,7 @@ package com.api.anagrams;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * The type Application.
@@ -9,6 +10,7 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * @author Nagalakshmi Paramasivam
  */
 @SpringBootApplication
+@EnableScheduling
 public class Application {
 
   /**
@@ -0,0 +1,390 @@
+package com.api.anagrams.anagram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The anagram grouping engine.
+ *
+ * Buckets words by signature in a single pass and keeps the classes indexed by size,
+ * so the largest class and the classes of a given size are found without comparing
+ * words pairwise. The letters used by the dictionary are counted as well, so a near-anagram
+ * search only inserts letters some word actually has. Not thread-safe; {@link AnagramIndex}
+ * guards the shared instance.
+ */
+public class AnagramGroups {
+
+    private final Map<String, Set<String>> classes = new HashMap<>();
+
+    private final TreeMap<Integer, Set<String>> classesBySize = new TreeMap<>();
+
+    private final TreeMap<Character, Integer> letters = new TreeMap<>();
+
+    private final LongAdder probes = new LongAdder();
+
+    /**
+     * Group a list of words.
+     *
+     * @param words the list of words
+     * @return the anagram groups
+     */
+    public static AnagramGroups of(Iterable<String> words) {
+        AnagramGroups groups = new AnagramGroups();
+        for (String w : words)
+            groups.add(w);
+
+        return groups;
+    }
+
+    /**
+     * Add a word to its anagram class.
+     *
+     * @param value the word value
+     * @return true if the word was not already present
+     */
+    public boolean add(String value) {
+        String signature = AnagramImpl.signature(value);
+        Set<String> words = classes.computeIfAbsent(signature, k -> new LinkedHashSet<>());
+        int size = words.size();
+
+        if (!words.add(value))
+            return false;
+
+        resize(signature, size, size + 1);
+        return true;
+    }
+
+    /**
+     * Remove a word from its anagram class.
+     *
+     * @param value the word value
+     * @return true if the word was present
+     */
+    public boolean remove(String value) {
+        String signature = AnagramImpl.signature(value);
+        Set<String> words = classes.get(signature);
+
+        if (words == null || !words.remove(value))
+            return false;
+
+        if (words.isEmpty())
+            classes.remove(signature);
+        resize(signature, words.size() + 1, words.size());
+        return true;
+    }
+
+    /**
+     * Remove every word.
+     */
+    public void clear() {
+        classes.clear();
+        classesBySize.clear();
+        letters.clear();
+    }
+
+    /**
+     * Get the anagram class of a word, in insertion order.
+     *
+     * @param value the word value
+     * @return the words sharing the signature of the value
+     */
+    public Set<String> getAnagrams(String value) {
+        Set<String> words = classes.get(AnagramImpl.signature(value));
+        probes.increment();
+
+        return words == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(words);
+    }
+
+    /**
+     * Get the words whose letters differ from those of a word by at most edits insertions,
+     * deletions or substitutions, closest first.
+     *
+     * Rather than comparing the word with every class, the signatures within edits of its
+     * signature are enumerated and each is looked up: remove up to edits of its letters,
+     * then insert up to edits letters of the dictionary alphabet, never one just removed.
+     * The distance of a signature is the larger of the two counts, since a removal and an
+     * insertion pair up into a substitution.
+     *
+     * @param value the word value
+     * @param edits the maximum number of letter edits
+     * @param limit the maximum number of words to return
+     * @return the map of each word to its distance, in order of distance
+     */
+    public LinkedHashMap<String, Integer> getNearAnagrams(String value, int edits, int limit) {
+        String signature = AnagramImpl.signature(value);
+        TreeMap<Character, Integer> rack = new TreeMap<>();
+        for (char c : signature.toCharArray())
+            rack.merge(c, 1, Integer::sum);
+        for (Character c : letters.keySet())
+            rack.putIfAbsent(c, 0);
+
+        Neighbourhood neighbourhood = new Neighbourhood(rack, edits);
+        neighbourhood.remove(0, 0);
+
+        List<Map.Entry<String, Integer>> found = new ArrayList<>(neighbourhood.distances.entrySet());
+        found.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+
+        LinkedHashMap<String, Integer> outputs = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : found) {
+            for (String w : classes.get(entry.getKey())) {
+                if (outputs.size() >= limit)
+                    return outputs;
+                outputs.put(w, entry.getValue());
+            }
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Get the anagram class of every word: each word maps to the words sharing its signature.
+     *
+     * @return the map
+     */
+    public LinkedHashMap<String, List<String>> getAnagramsByWord() {
+        LinkedHashMap<String, List<String>> map = new LinkedHashMap<>();
+
+        for (Set<String> words : classes.values()) {
+            List<String> outputs = new ArrayList<>(words);
+            for (String w : words)
+                map.put(w, outputs);
+        }
+
+        return map;
+    }
+
+    /**
+     * Get the first class among the largest ones.
+     *
+     * @return the list, empty if there are no words
+     */
+    public List<String> getLargestClass() {
+        if (classesBySize.isEmpty())
+            return new ArrayList<>();
+
+        String signature = classesBySize.lastEntry().getValue().iterator().next();
+
+        return new ArrayList<>(classes.get(signature));
+    }
+
+    /**
+     * Get a page of the classes ranked from the largest down. Whole sizes are skipped by
+     * their class count, so only the classes of the page itself are visited.
+     *
+     * @param offset the number of classes to skip
+     * @param limit the maximum number of classes to return
+     * @return the map of signature to the words sharing it, largest first
+     */
+    public LinkedHashMap<String, List<String>> getTopClasses(int offset, int limit) {
+        LinkedHashMap<String, List<String>> output = new LinkedHashMap<>();
+        int skip = offset;
+
+        for (Set<String> signatures : classesBySize.descendingMap().values()) {
+            if (output.size() >= limit)
+                break;
+            if (skip >= signatures.size()) {
+                skip -= signatures.size();
+                continue;
+            }
+
+            for (String signature : signatures) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    if (output.size() >= limit)
+                        break;
+                    output.put(signature, new ArrayList<>(classes.get(signature)));
+                }
+            }
+        }
+
+        return output;
+    }
+
+    /**
+     * Get every class holding exactly size words.
+     *
+     * @param size the class size
+     * @return the list of classes
+     */
+    public List<List<String>> getClassesOfSize(int size) {
+        List<List<String>> output = new ArrayList<>();
+        Set<String> signatures = classesBySize.get(size);
+
+        if (signatures != null) {
+            for (String signature : signatures)
+                output.add(new ArrayList<>(classes.get(signature)));
+        }
+
+        return output;
+    }
+
+    /**
+     * Get the class size histogram: the number of classes per class size.
+     *
+     * @return the sorted map
+     */
+    public SortedMap<Integer, Integer> getHistogram() {
+        SortedMap<Integer, Integer> histogram = new TreeMap<>();
+        for (Map.Entry<Integer, Set<String>> entry : classesBySize.entrySet())
+            histogram.put(entry.getKey(), entry.getValue().size());
+
+        return histogram;
+    }
+
+    /**
+     * Get the number of words sharing a signature.
+     *
+     * @param signature the signature
+     * @return the class size, 0 if there is no such class
+     */
+    public int getClassSize(String signature) {
+        Set<String> words = classes.get(signature);
+
+        return words == null ? 0 : words.size();
+    }
+
+    /**
+     * Get the number of signatures looked up by anagram and near-anagram queries.
+     *
+     * @return the count
+     */
+    public long getProbes() {
+        return probes.sum();
+    }
+
+    /**
+     * Get the number of anagram classes.
+     *
+     * @return the count
+     */
+    public int getClassCount() {
+        return classes.size();
+    }
+
+    private void resize(String signature, int from, int to) {
+        if (from > 0) {
+            Set<String> signatures = classesBySize.get(from);
+            signatures.remove(signature);
+            if (signatures.isEmpty())
+                classesBySize.remove(from);
+        }
+        if (to > 0)
+            classesBySize.computeIfAbsent(to, k -> new LinkedHashSet<>()).add(signature);
+
+        if (from == 0 || to == 0) {
+            for (char c : distinct(signature)) {
+                if (letters.merge(c, to == 0 ? -1 : 1, Integer::sum) == 0)
+                    letters.remove(c);
+            }
+        }
+    }
+
+    private static char[] distinct(String signature) {
+        char[] distinct = new char[signature.length()];
+        int n = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            if (n == 0 || distinct[n - 1] != signature.charAt(i))
+                distinct[n++] = signature.charAt(i);
+        }
+
+        return Arrays.copyOf(distinct, n);
+    }
+
+    /**
+     * The enumeration of the signatures near a word: the union of its letters and the
+     * dictionary alphabet in sorted order, with the count of each left after the edits so far.
+     */
+    private class Neighbourhood {
+
+        private final char[] keys;
+
+        private final int[] counts;
+
+        private final boolean[] removed;
+
+        private final boolean[] insertable;
+
+        private final int edits;
+
+        private final char[] buffer;
+
+        private final Map<String, Integer> distances = new HashMap<>();
+
+        private Neighbourhood(TreeMap<Character, Integer> rack, int edits) {
+            this.keys = new char[rack.size()];
+            this.counts = new int[rack.size()];
+            this.removed = new boolean[rack.size()];
+            this.insertable = new boolean[rack.size()];
+            this.edits = edits;
+
+            int i = 0;
+            int length = 0;
+            for (Map.Entry<Character, Integer> entry : rack.entrySet()) {
+                keys[i] = entry.getKey();
+                counts[i] = entry.getValue();
+                insertable[i++] = letters.containsKey(entry.getKey());
+                length += entry.getValue();
+            }
+            this.buffer = new char[length + edits];
+        }
+
+        private void remove(int from, int removals) {
+            insert(0, removals, 0);
+            if (removals == edits)
+                return;
+
+            for (int i = from; i < keys.length; i++) {
+                if (counts[i] == 0)
+                    continue;
+
+                boolean wasRemoved = removed[i];
+                counts[i]--;
+                removed[i] = true;
+                remove(i, removals + 1);
+                removed[i] = wasRemoved;
+                counts[i]++;
+            }
+        }
+
+        private void insert(int from, int removals, int insertions) {
+            probe(Math.max(removals, insertions));
+            if (insertions == edits)
+                return;
+
+            for (int i = from; i < keys.length; i++) {
+                if (removed[i] || !insertable[i])
+                    continue;
+
+                counts[i]++;
+                insert(i, removals, insertions + 1);
+                counts[i]--;
+            }
+        }
+
+        private void probe(int distance) {
+            int n = 0;
+            for (int i = 0; i < keys.length; i++) {
+                for (int j = 0; j < counts[i]; j++)
+                    buffer[n++] = keys[i];
+            }
+            if (n == 0)
+                return;
+
+            String signature = new String(buffer, 0, n);
+            probes.increment();
+            if (classes.containsKey(signature))
+                distances.merge(signature, distance, Math::min);
+        }
+    }
+}
@@ -2,53 +2,211 @@ package com.api.anagrams.anagram;
 
 import org.springframework.stereotype.Service;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * The type Anagram implementation.
  *
+ * Words are compared case-insensitively, one character at a time. Words made only of
+ * Latin-1 characters are compared with a reusable per-thread count array; any other
+ * word falls back to comparing its sorted code points.
  */
 @Service
 public class AnagramImpl {
 
+    private static final int LATIN1 = 256;
+
+    private static final char[] LOWER = new char[LATIN1];
+
+    private static final long[] WEIGHTS = new long[LATIN1];
+
+    private static final ThreadLocal<int[]> COUNTS = ThreadLocal.withInitial(() -> new int[LATIN1]);
+
+    static {
+        for (char c = 0; c < LATIN1; c++) {
+            LOWER[c] = Character.toLowerCase(c);
+            WEIGHTS[c] = weight(LOWER[c]);
+        }
+    }
+
     public static String Anagram(String a, String b) {
 
-        if (a == null || b == null || a.equals("") || b.equals(""))
-            throw new IllegalArgumentException();
+        requireWords(a, b);
         if (a.length() != b.length())
             return null;
 
-        a = a.toLowerCase();
-        b = b.toLowerCase();
+        boolean anagram = isLatin1(a) && isLatin1(b) ? countLatin1(a, b) : compareCodePoints(a, b);
+
+        return anagram ? b : null;
+    }
+
+    /**
+     * Compare two words whose fingerprints are already known, rejecting most
+     * non-anagrams with a single long compare.
+     *
+     * @param a the first word
+     * @param fa the fingerprint of the first word
+     * @param b the second word
+     * @param fb the fingerprint of the second word
+     * @return the second word if both are anagrams, otherwise null
+     */
+    public static String Anagram(String a, long fa, String b, long fb) {
+
+        requireWords(a, b);
+        if (fa != fb)
+            return null;
+
+        return Anagram(a, b);
+    }
+
+    /**
+     * Get the 64-bit letter fingerprint of a word: the sum of a hash of each lower-cased
+     * character. Anagrams always share a fingerprint; different letter multisets almost
+     * never do.
+     *
+     * @param word the word value
+     * @return the fingerprint
+     */
+    public static long fingerprint(String word) {
+
+        if (word == null || word.equals(""))
+            throw new IllegalArgumentException();
+
+        long fingerprint = 0;
+        for (int i = 0; i < word.length(); ) {
+            int c = word.codePointAt(i);
+            fingerprint += c < LATIN1 ? WEIGHTS[c] : weight(Character.toLowerCase(c));
+            i += Character.charCount(c);
+        }
+
+        return fingerprint;
+    }
 
-        Map<Character, Integer> map = new HashMap<>();
+    /**
+     * Get the fingerprint of a word from its UTF-8 bytes, without decoding it into a string.
+     * It is the fingerprint of the decoded word.
+     *
+     * @param utf8 the bytes
+     * @param offset the offset of the word
+     * @param length the length of the word, in bytes
+     * @return the fingerprint
+     */
+    public static long fingerprint(byte[] utf8, int offset, int length) {
 
-        for (int k = 0; k < b.length(); k++) {
-            char letter = b.charAt(k);
+        if (length == 0)
+            throw new IllegalArgumentException();
 
-            if (!map.containsKey(letter)) {
-                map.put(letter, 1);
+        long fingerprint = 0;
+        for (int i = offset, end = offset + length; i < end; ) {
+            int b = utf8[i] & 0xFF;
+            int c;
+            if (b < 0x80) {
+                c = b;
+                i += 1;
+            } else if (b < 0xE0) {
+                c = (b & 0x1F) << 6 | utf8[i + 1] & 0x3F;
+                i += 2;
+            } else if (b < 0xF0) {
+                c = (b & 0x0F) << 12 | (utf8[i + 1] & 0x3F) << 6 | utf8[i + 2] & 0x3F;
+                i += 3;
             } else {
-                Integer frequency = map.get(letter);
-                map.put(letter, ++frequency);
+                c = (b & 0x07) << 18 | (utf8[i + 1] & 0x3F) << 12 | (utf8[i + 2] & 0x3F) << 6 | utf8[i + 3] & 0x3F;
+                i += 4;
+            }
+            fingerprint += c < LATIN1 ? WEIGHTS[c] : weight(Character.toLowerCase(c));
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * Get the signature of a word: its lower-cased letters in sorted order.
+     * Two words are anagrams of each other exactly when their signatures are equal.
+     *
+     * @param word the word value
+     * @return the signature
+     */
+    public static String signature(String word) {
+
+        if (word == null || word.equals(""))
+            throw new IllegalArgumentException();
+
+        if (isLatin1(word)) {
+            int[] counts = COUNTS.get();
+            char[] letters = new char[word.length()];
+
+            for (int i = 0; i < word.length(); i++)
+                counts[LOWER[word.charAt(i)]]++;
+            for (int c = 0, k = 0; k < letters.length; c++) {
+                for (; counts[c] > 0; counts[c]--)
+                    letters[k++] = (char) c;
             }
+
+            return new String(letters);
+        }
+
+        int[] codePoints = lowerCodePoints(word);
+
+        return new String(codePoints, 0, codePoints.length);
+    }
+
+    private static void requireWords(String a, String b) {
+        if (a == null || b == null || a.equals("") || b.equals(""))
+            throw new IllegalArgumentException();
+    }
+
+    private static boolean isLatin1(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (word.charAt(i) >= LATIN1)
+                return false;
         }
 
-        for (int k = 0; k < a.length(); k++) {
-            char letter = a.charAt(k);
+        return true;
+    }
 
-            if (!map.containsKey(letter))
-                return null;
+    private static boolean countLatin1(String a, String b) {
+        int[] counts = COUNTS.get();
 
-            Integer frequency = map.get(letter);
+        for (int i = 0; i < a.length(); i++) {
+            counts[LOWER[a.charAt(i)]]++;
+            counts[LOWER[b.charAt(i)]]--;
+        }
 
-            if (frequency == 0)
-                return null;
-            else
-                map.put(letter, --frequency);
+        // With equal lengths the counts sum to zero, so if every letter of a is back
+        // to zero then so is every letter of b.
+        boolean anagram = true;
+        for (int i = 0; i < a.length(); i++) {
+            char c = LOWER[a.charAt(i)];
+            if (counts[c] != 0) {
+                anagram = false;
+                counts[c] = 0;
+            }
         }
+        if (!anagram) {
+            for (int i = 0; i < b.length(); i++)
+                counts[LOWER[b.charAt(i)]] = 0;
+        }
+
+        return anagram;
+    }
+
+    private static boolean compareCodePoints(String a, String b) {
+
+        return Arrays.equals(lowerCodePoints(a), lowerCodePoints(b));
+    }
+
+    private static int[] lowerCodePoints(String word) {
+        int[] codePoints = word.codePoints().map(Character::toLowerCase).toArray();
+        Arrays.sort(codePoints);
+
+        return codePoints;
+    }
+
+    private static long weight(int c) {
+        long z = (c + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
 
-        return b;
+        return z ^ (z >>> 31);
     }
 }
@@ -0,0 +1,222 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.Word;
+import com.api.anagrams.service.DictionaryListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The in-memory anagram index.
+ *
+ * Maps the signature of every dictionary word to the words sharing it, so an anagram
+ * lookup is a single hash probe instead of a scan of the words table. Setting
+ * {@code anagrams.index.enabled=false} leaves the index empty so anagram queries go
+ * to the indexed signature column instead, for dictionaries that do not fit in heap.
+ * The index is notified of changes first, so other listeners can read the new class sizes.
+ */
+@Service
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class AnagramIndex implements DictionaryListener {
+
+    @Value("${anagrams.index.enabled:true}")
+    private boolean enabled = true;
+
+    private final AnagramGroups groups = new AnagramGroups();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Is the index enabled.
+     *
+     * @return true if anagram queries are served from memory
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the anagrams of a word, in insertion order.
+     *
+     * @param value the word value
+     * @param limit the maximum number of anagrams to return
+     * @return the list
+     */
+    public List<String> getAnagrams(String value, int limit) {
+        List<String> outputs = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Iterator<String> it = groups.getAnagrams(value).iterator();
+            while (it.hasNext() && outputs.size() < limit)
+                outputs.add(it.next());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Get the words whose letters differ from those of a word by at most edits insertions,
+     * deletions or substitutions, closest first.
+     *
+     * @param value the word value
+     * @param edits the maximum number of letter edits
+     * @param limit the maximum number of words to return
+     * @return the map of each word to its distance, in order of distance
+     */
+    public LinkedHashMap<String, Integer> getNearAnagrams(String value, int edits, int limit) {
+        lock.readLock().lock();
+        try {
+            return groups.getNearAnagrams(value, edits, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the first class among the largest ones.
+     *
+     * @return the list, empty if there are no words
+     */
+    public List<String> getLargestClass() {
+        lock.readLock().lock();
+        try {
+            return groups.getLargestClass();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of the classes ranked from the largest down.
+     *
+     * @param offset the number of classes to skip
+     * @param limit the maximum number of classes to return
+     * @return the map of signature to the words sharing it, largest first
+     */
+    public LinkedHashMap<String, List<String>> getTopClasses(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return groups.getTopClasses(offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get every class holding exactly size words.
+     *
+     * @param size the class size
+     * @return the list of classes
+     */
+    public List<List<String>> getClassesOfSize(int size) {
+        lock.readLock().lock();
+        try {
+            return groups.getClassesOfSize(size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the class size histogram: the number of classes per class size.
+     *
+     * @return the sorted map
+     */
+    public SortedMap<Integer, Integer> getHistogram() {
+        lock.readLock().lock();
+        try {
+            return groups.getHistogram();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of words sharing a signature.
+     *
+     * @param signature the signature
+     * @return the class size, 0 if there is no such class
+     */
+    public int getClassSize(String signature) {
+        lock.readLock().lock();
+        try {
+            return groups.getClassSize(signature);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the number of signatures looked up by anagram and near-anagram queries.
+     *
+     * @return the count
+     */
+    public long getProbes() {
+        return groups.getProbes();
+    }
+
+    /**
+     * Get the number of anagram classes.
+     *
+     * @return the count
+     */
+    public int getClassCount() {
+        lock.readLock().lock();
+        try {
+            return groups.getClassCount();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            for (Word w : words)
+                groups.add(w.getValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            for (Word w : words)
+                groups.remove(w.getValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void cleared() {
+        lock.writeLock().lock();
+        try {
+            groups.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
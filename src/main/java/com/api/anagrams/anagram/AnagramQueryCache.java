@@ -0,0 +1,229 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.Word;
+import com.api.anagrams.service.DictionaryListener;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * The bounded cache of anagram query results.
+ *
+ * Lookups are cached by signature, as the whole class, and cut to the requested limit on
+ * the way out. The largest class and the classes of each size are cached apart. Both are
+ * evicted by size and age. A change to the dictionary drops only the keys it can affect:
+ * the signatures it touched, the classes-of-size results for the old and new sizes of those
+ * classes, and the largest-class result if the change could overtake or shrink it. Every
+ * key falls in a stripe with a version that each change bumps before dropping its keys, and
+ * a result computed while the version of its stripe moved is dropped again after it is
+ * stored, so a load that read the index or the table before a change cannot outlive it.
+ * Hit, miss and eviction counts are published to the actuator metrics as anagrams.query
+ * and anagrams.query.classes cache metrics.
+ */
+@Service
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class AnagramQueryCache implements DictionaryListener {
+
+    private static final int STRIPES = 64;
+
+    private static final int CLASSES = STRIPES;
+
+    private static final Key LARGEST = new Key(Key.LARGEST, 0);
+
+    @Autowired
+    private AnagramIndex anagramIndex;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${anagrams.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${anagrams.cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private final AtomicLongArray versions = new AtomicLongArray(STRIPES + 1);
+
+    private Cache<String, List<String>> lookups;
+
+    private Cache<Key, Object> classes;
+
+    @PostConstruct
+    public void init() {
+        lookups = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        classes = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lookups, "anagrams.query");
+        CaffeineCacheMetrics.monitor(meterRegistry, classes, "anagrams.query.classes");
+    }
+
+    /**
+     * Get the cached anagrams of a word, computing the whole class on a miss.
+     *
+     * @param value the word value
+     * @param limit the maximum number of anagrams
+     * @param loader the computation of every anagram of the word
+     * @return the list
+     */
+    public List<String> getAnagrams(String value, int limit, Supplier<List<String>> loader) {
+        String signature = AnagramImpl.signature(value);
+        List<String> anagrams = get(lookups, signature, stripe(signature), loader);
+
+        return new ArrayList<>(anagrams.subList(0, Math.max(0, Math.min(limit, anagrams.size()))));
+    }
+
+    /**
+     * Get the cached largest class, computing it on a miss.
+     *
+     * @param loader the computation
+     * @return the list
+     */
+    public List<String> getLargestClass(Supplier<List<String>> loader) {
+
+        return get(classes, LARGEST, CLASSES, loader);
+    }
+
+    /**
+     * Get the cached classes of a size, computing them on a miss.
+     *
+     * @param size the class size
+     * @param loader the computation
+     * @return the list of classes
+     */
+    public List<List<String>> getClassesOfSize(int size, Supplier<List<List<String>>> loader) {
+
+        return get(classes, new Key(Key.OF_SIZE, size), CLASSES, loader);
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        invalidate(words, 1);
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+        invalidate(words, -1);
+    }
+
+    @Override
+    public void cleared() {
+        for (int i = 0; i < versions.length(); i++)
+            versions.incrementAndGet(i);
+        lookups.invalidateAll();
+        classes.invalidateAll();
+    }
+
+    /**
+     * Get a cached result, computing it on a miss. The result is stored, then dropped again
+     * if a change bumped the version of its stripe meanwhile.
+     */
+    @SuppressWarnings("unchecked")
+    private <K, V, T extends V> T get(Cache<K, V> cache, K key, int stripe, Supplier<T> loader) {
+        V cached = cache.getIfPresent(key);
+        if (cached != null)
+            return (T) cached;
+
+        long version = versions.get(stripe);
+        T value = loader.get();
+        if (value != null) {
+            cache.put(key, value);
+            if (versions.get(stripe) != version)
+                cache.invalidate(key);
+        }
+
+        return value;
+    }
+
+    /**
+     * Drop the entries affected by a change, given the index already reflects it.
+     *
+     * @param words the changed words
+     * @param sign 1 for inserts, -1 for deletes
+     */
+    private void invalidate(Collection<Word> words, int sign) {
+        Map<String, Integer> deltas = new HashMap<>();
+        for (Word w : words)
+            deltas.merge(AnagramImpl.signature(w.getValue()), sign, Integer::sum);
+
+        for (String signature : deltas.keySet()) {
+            versions.incrementAndGet(stripe(signature));
+            lookups.invalidate(signature);
+        }
+
+        versions.incrementAndGet(CLASSES);
+        if (!anagramIndex.isEnabled()) {
+            classes.invalidateAll();
+            return;
+        }
+
+        List<?> largest = (List<?>) classes.asMap().get(LARGEST);
+        String largestSignature = largest == null || largest.isEmpty() ? null : AnagramImpl.signature((String) largest.get(0));
+        for (Map.Entry<String, Integer> entry : deltas.entrySet()) {
+            int size = anagramIndex.getClassSize(entry.getKey());
+            classes.invalidate(new Key(Key.OF_SIZE, size - entry.getValue()));
+            classes.invalidate(new Key(Key.OF_SIZE, size));
+            if (largest != null && (entry.getKey().equals(largestSignature) || size >= largest.size()))
+                classes.invalidate(LARGEST);
+        }
+    }
+
+    private static int stripe(String signature) {
+        return (signature.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    /**
+     * The key of a class query.
+     */
+    private static class Key {
+
+        private static final int LARGEST = 1;
+        private static final int OF_SIZE = 2;
+
+        private final int type;
+        private final int size;
+
+        private Key(int type, int size) {
+            this.type = type;
+            this.size = size;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o)
+                return true;
+            if (!(o instanceof Key))
+                return false;
+            Key key = (Key) o;
+            return type == key.type && size == key.size;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, size);
+        }
+    }
+}
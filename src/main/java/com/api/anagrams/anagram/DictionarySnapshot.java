@@ -0,0 +1,341 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.Word;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only binary snapshot of the dictionary, memory-mapped and queried in place.
+ *
+ * The file is a header, the word records in id order ({@code long id, int length, UTF-8 bytes}),
+ * one record per anagram class ({@code int length, UTF-8 signature, int size, size word offsets})
+ * and an open-addressing hash table of class offsets keyed by signature. Opening a snapshot
+ * only maps the file and reads the header, so it costs the same whatever the size of the
+ * dictionary, and lookups read the mapped pages directly without building anything on the heap.
+ * The header records the sequence number of the last change in the change log when the
+ * snapshot was taken, which is how a stale snapshot is told apart from the current table:
+ * the number of words and the largest id can match again once the table is emptied and
+ * its ids reset. Offsets are ints, so a snapshot is limited to 2GB.
+ */
+public final class DictionarySnapshot {
+
+    private static final int MAGIC = 0x414E4753;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final int HEADER_SIZE = 56;
+
+    private final MappedByteBuffer buffer;
+
+    private final long wordCount;
+
+    private final long maxId;
+
+    private final long changeSeq;
+
+    private final int classCount;
+
+    private final int tableOffset;
+
+    private final int tableMask;
+
+    private final int largestOffset;
+
+    private DictionarySnapshot(MappedByteBuffer buffer) throws IOException {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException("Not a dictionary snapshot");
+        if (buffer.getInt(4) != FORMAT_VERSION)
+            throw new IOException("Unsupported dictionary snapshot version " + buffer.getInt(4));
+
+        this.buffer = buffer;
+        this.wordCount = buffer.getLong(8);
+        this.maxId = buffer.getLong(16);
+        this.classCount = buffer.getInt(24);
+        this.tableOffset = buffer.getInt(28);
+        this.tableMask = buffer.getInt(32) - 1;
+        this.largestOffset = buffer.getInt(36);
+        this.changeSeq = buffer.getLong(48);
+    }
+
+    /**
+     * Map a snapshot file.
+     *
+     * @param file the snapshot file
+     * @return the snapshot
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static DictionarySnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new DictionarySnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Write a snapshot of the words, replacing the file atomically once it is complete.
+     * Word records are streamed to disk as they arrive; only the word offsets of each class
+     * are held in memory until the class records are written.
+     *
+     * @param file the snapshot file
+     * @param changeSeq the seq of the last change in the change log before the words were read
+     * @param words every word of the dictionary, in id order
+     * @return the snapshot
+     * @throws IOException if the file cannot be written
+     */
+    public static DictionarySnapshot write(Path file, long changeSeq, Iterator<Word> words) throws IOException {
+        Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+
+        try {
+            long wordCount = 0;
+            long maxId = 0;
+            Map<String, Postings> classes = new HashMap<>();
+            List<String> signatures = new ArrayList<>();
+
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+                out.write(new byte[HEADER_SIZE]);
+
+                while (words.hasNext()) {
+                    Word w = words.next();
+                    wordCount++;
+                    maxId = Math.max(maxId, w.getId());
+                    if (w.getValue() == null || w.getValue().isEmpty())
+                        continue;
+
+                    String signature = AnagramImpl.signature(w.getValue());
+                    Postings postings = classes.get(signature);
+                    if (postings == null) {
+                        postings = new Postings();
+                        classes.put(signature, postings);
+                        signatures.add(signature);
+                    }
+                    postings.add(position(out));
+
+                    byte[] value = w.getValue().getBytes(StandardCharsets.UTF_8);
+                    out.writeLong(w.getId());
+                    out.writeInt(value.length);
+                    out.write(value);
+                }
+
+                int tableSize = Integer.highestOneBit(Math.max(1, signatures.size()) * 2 - 1) << 1;
+                int[] table = new int[tableSize];
+                int largestOffset = 0;
+                int largestSize = 0;
+
+                for (String signature : signatures) {
+                    Postings postings = classes.get(signature);
+                    int offset = position(out);
+                    byte[] bytes = signature.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(bytes.length);
+                    out.write(bytes);
+                    out.writeInt(postings.size);
+                    for (int i = 0; i < postings.size; i++)
+                        out.writeInt(postings.offsets[i]);
+
+                    int slot = hash(signature) & (tableSize - 1);
+                    while (table[slot] != 0)
+                        slot = (slot + 1) & (tableSize - 1);
+                    table[slot] = offset;
+                    if (postings.size > largestSize) {
+                        largestSize = postings.size;
+                        largestOffset = offset;
+                    }
+                }
+
+                int tableOffset = position(out);
+                for (int offset : table)
+                    out.writeInt(offset);
+                position(out);
+                out.flush();
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(wordCount).putLong(maxId)
+                        .putInt(signatures.size()).putInt(tableOffset).putInt(tableSize).putInt(largestOffset)
+                        .putLong(System.currentTimeMillis()).putLong(changeSeq);
+                header.flip();
+                channel.write(header, 0);
+                channel.force(true);
+            }
+
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+
+        return open(file);
+    }
+
+    /**
+     * Is the snapshot a copy of the table as of the last change in the change log.
+     *
+     * @param lastSeq the seq of the last change in the change log
+     * @return true if the snapshot is current
+     */
+    public boolean isCurrent(long lastSeq) {
+        return this.changeSeq == lastSeq;
+    }
+
+    /**
+     * Gets word count.
+     *
+     * @return the word count
+     */
+    public long getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Gets max id.
+     *
+     * @return the max id
+     */
+    public long getMaxId() {
+        return maxId;
+    }
+
+    /**
+     * Gets change seq.
+     *
+     * @return the seq of the last change the snapshot reflects
+     */
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    /**
+     * Gets class count.
+     *
+     * @return the class count
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Gets the size of the snapshot in bytes.
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return buffer.capacity();
+    }
+
+    /**
+     * Get the anagrams of a word, in id order.
+     *
+     * @param value the word value
+     * @param limit the maximum number of anagrams to return
+     * @return the list
+     */
+    public List<String> getAnagrams(String value, int limit) {
+        int offset = find(AnagramImpl.signature(value));
+
+        return offset == 0 ? new ArrayList<>() : words(offset, limit);
+    }
+
+    /**
+     * Get the number of words sharing a signature.
+     *
+     * @param signature the signature
+     * @return the class size, 0 if there is no such class
+     */
+    public int getClassSize(String signature) {
+        int offset = find(signature);
+
+        return offset == 0 ? 0 : buffer.getInt(offset + 4 + buffer.getInt(offset));
+    }
+
+    /**
+     * Get the first class among the largest ones.
+     *
+     * @return the list, empty if there are no words
+     */
+    public List<String> getLargestClass() {
+
+        return largestOffset == 0 ? new ArrayList<>() : words(largestOffset, Integer.MAX_VALUE);
+    }
+
+    private int find(String signature) {
+        byte[] bytes = signature.getBytes(StandardCharsets.UTF_8);
+
+        for (int slot = hash(signature) & tableMask; ; slot = (slot + 1) & tableMask) {
+            int offset = buffer.getInt(tableOffset + slot * 4);
+            if (offset == 0 || matches(offset, bytes))
+                return offset;
+        }
+    }
+
+    private boolean matches(int offset, byte[] signature) {
+        if (buffer.getInt(offset) != signature.length)
+            return false;
+
+        for (int i = 0; i < signature.length; i++) {
+            if (buffer.get(offset + 4 + i) != signature[i])
+                return false;
+        }
+
+        return true;
+    }
+
+    private List<String> words(int classOffset, int limit) {
+        int postings = classOffset + 4 + buffer.getInt(classOffset);
+        int size = Math.min(buffer.getInt(postings), Math.max(0, limit));
+        List<String> outputs = new ArrayList<>(size);
+        ByteBuffer reader = buffer.duplicate();
+
+        for (int i = 0; i < size; i++) {
+            int word = buffer.getInt(postings + 4 + i * 4);
+            byte[] value = new byte[buffer.getInt(word + 8)];
+            reader.position(word + 12);
+            reader.get(value);
+            outputs.add(new String(value, StandardCharsets.UTF_8));
+        }
+
+        return outputs;
+    }
+
+    private static int position(DataOutputStream out) throws IOException {
+        if (out.size() == Integer.MAX_VALUE)
+            throw new IOException("Dictionary snapshot exceeds 2GB");
+
+        return out.size();
+    }
+
+    private static int hash(String signature) {
+        int h = signature.hashCode();
+
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * The growable list of word offsets of a class.
+     */
+    private static class Postings {
+
+        private int[] offsets = new int[1];
+
+        private int size;
+
+        private void add(int offset) {
+            if (size == offsets.length)
+                offsets = Arrays.copyOf(offsets, size * 2);
+            offsets[size++] = offset;
+        }
+    }
+}
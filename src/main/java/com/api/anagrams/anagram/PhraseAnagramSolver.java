@@ -0,0 +1,237 @@
+package com.api.anagrams.anagram;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * The multi-word phrase anagram solver, e.g. "dormitory" to "dirty room".
+ *
+ * The candidates are the anagram classes that fit in the phrase's letters, taken from
+ * {@link SubAnagramIndex}. A backtracking search picks classes in non-decreasing order,
+ * and the words of a class picked more than once in non-decreasing order too, so each
+ * combination is visited once. The top levels of the search are forked onto a
+ * work-stealing pool and the rest runs sequentially in each task. Solutions are handed
+ * to the caller as soon as they are found, and the search stops at the result cap or
+ * when the time budget runs out.
+ */
+@Service
+public class PhraseAnagramSolver {
+
+    private static final int SPLIT_DEPTH = 2;
+
+    private static final long POLL_MILLIS = 10;
+
+    @Autowired
+    private SubAnagramIndex subAnagramIndex;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Find the multi-word anagrams of a phrase, passing each one to the consumer on the
+     * calling thread as soon as it is found.
+     *
+     * @param phrase the phrase, anything but letters is ignored
+     * @param limit the maximum number of solutions
+     * @param budgetMillis the time budget in milliseconds
+     * @param consumer the consumer of solutions
+     * @return the number of solutions found
+     */
+    public int solve(String phrase, int limit, long budgetMillis, Consumer<List<String>> consumer) {
+        StringBuilder letters = new StringBuilder();
+        for (char c : phrase.toCharArray()) {
+            if (Character.isLetter(c))
+                letters.append(c);
+        }
+        if (letters.length() == 0 || limit < 1)
+            return 0;
+
+        Search search = new Search(AnagramImpl.signature(letters.toString()),
+                subAnagramIndex.getSubAnagramClasses(letters.toString()), limit);
+        long deadline = System.currentTimeMillis() + budgetMillis;
+        ForkJoinTask<?> task = pool.submit(search.task(search.remaining, search.length, 0, new ArrayList<>(), 0));
+        int found = 0;
+
+        try {
+            while (found < limit && System.currentTimeMillis() < deadline) {
+                List<String> solution = search.solutions.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (solution != null) {
+                    consumer.accept(solution);
+                    found++;
+                } else if (task.isDone() && search.solutions.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            search.stopped.set(true);
+            task.cancel(true);
+        }
+
+        return found;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * The state of one phrase search shared by all its tasks.
+     */
+    private static class Search {
+
+        private final char[] letters;
+
+        private final int[] remaining;
+
+        private final int length;
+
+        private final List<int[]> counts = new ArrayList<>();
+
+        private final List<Integer> lengths = new ArrayList<>();
+
+        private final List<List<String>> words = new ArrayList<>();
+
+        private final BlockingQueue<List<String>> solutions = new LinkedBlockingQueue<>();
+
+        private final AtomicInteger produced = new AtomicInteger();
+
+        private final AtomicBoolean stopped = new AtomicBoolean();
+
+        private final int limit;
+
+        private Search(String signature, Map<String, List<String>> classes, int limit) {
+            char[] letters = new char[signature.length()];
+            int[] remaining = new int[signature.length()];
+            int n = 0;
+
+            for (char c : signature.toCharArray()) {
+                if (n == 0 || letters[n - 1] != c)
+                    letters[n++] = c;
+                remaining[n - 1]++;
+            }
+            this.letters = Arrays.copyOf(letters, n);
+            this.remaining = Arrays.copyOf(remaining, n);
+            this.length = signature.length();
+            this.limit = limit;
+
+            for (Map.Entry<String, List<String>> entry : classes.entrySet()) {
+                int[] count = new int[n];
+                for (char c : entry.getKey().toCharArray())
+                    count[Arrays.binarySearch(this.letters, c)]++;
+                counts.add(count);
+                lengths.add(entry.getKey().length());
+                words.add(entry.getValue());
+            }
+        }
+
+        private RecursiveAction task(int[] remaining, int length, int from, List<Integer> chosen, int depth) {
+            return new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    if (depth >= SPLIT_DEPTH) {
+                        search(remaining, length, from, chosen);
+                        return;
+                    }
+
+                    List<RecursiveAction> tasks = new ArrayList<>();
+                    for (int i = from; i < counts.size() && !stopped.get(); i++) {
+                        if (!fits(remaining, counts.get(i)))
+                            continue;
+
+                        int[] left = remaining.clone();
+                        subtract(left, counts.get(i));
+                        List<Integer> next = new ArrayList<>(chosen);
+                        next.add(i);
+                        if (length == lengths.get(i))
+                            emit(next);
+                        else
+                            tasks.add(task(left, length - lengths.get(i), i, next, depth + 1));
+                    }
+                    invokeAll(tasks);
+                }
+            };
+        }
+
+        private void search(int[] remaining, int length, int from, List<Integer> chosen) {
+            for (int i = from; i < counts.size() && !stopped.get(); i++) {
+                int[] count = counts.get(i);
+                if (!fits(remaining, count))
+                    continue;
+
+                chosen.add(i);
+                if (length == lengths.get(i)) {
+                    emit(chosen);
+                } else {
+                    subtract(remaining, count);
+                    search(remaining, length - lengths.get(i), i, chosen);
+                    add(remaining, count);
+                }
+                chosen.remove(chosen.size() - 1);
+            }
+        }
+
+        /**
+         * Expand a combination of classes into every combination of their words. The picks
+         * of a repeated class are consecutive, and take its words in non-decreasing order.
+         */
+        private void emit(List<Integer> chosen) {
+            expand(chosen, 0, new int[chosen.size()], new String[chosen.size()]);
+        }
+
+        private void expand(List<Integer> chosen, int k, int[] picks, String[] solution) {
+            if (stopped.get())
+                return;
+            if (k == chosen.size()) {
+                if (produced.incrementAndGet() > limit)
+                    stopped.set(true);
+                else
+                    solutions.add(new ArrayList<>(Arrays.asList(solution)));
+                return;
+            }
+
+            List<String> candidates = words.get(chosen.get(k));
+            int first = k > 0 && chosen.get(k).equals(chosen.get(k - 1)) ? picks[k - 1] : 0;
+            for (int i = first; i < candidates.size(); i++) {
+                picks[k] = i;
+                solution[k] = candidates.get(i);
+                expand(chosen, k + 1, picks, solution);
+            }
+        }
+
+        private static boolean fits(int[] remaining, int[] count) {
+            for (int i = 0; i < count.length; i++) {
+                if (count[i] > remaining[i])
+                    return false;
+            }
+
+            return true;
+        }
+
+        private static void subtract(int[] remaining, int[] count) {
+            for (int i = 0; i < count.length; i++)
+                remaining[i] -= count[i];
+        }
+
+        private static void add(int[] remaining, int[] count) {
+            for (int i = 0; i < count.length; i++)
+                remaining[i] += count[i];
+        }
+    }
+}
@@ -0,0 +1,378 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.BlankAnagram;
+import com.api.anagrams.model.Word;
+import com.api.anagrams.service.DictionaryListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The sub-anagram index: every dictionary word that can be spelled from a rack of letters.
+ *
+ * Words are stored in a trie keyed by their signature, so the letters along every path
+ * are in sorted order. A search walks only the children whose letter is still left in
+ * the rack, and since letters never decrease along a path, each letter of the rack is
+ * tried at most once per level. Everything outside the rack is pruned without being visited.
+ * A rack with blanks is searched the same way: a blank is spent on a letter only when the
+ * rack has none of it left, and a branch is abandoned as soon as it passes a rack letter it
+ * did not use, since later letters only grow. Only the nodes that end a signature hold a
+ * set of words. Setting {@code anagrams.index.enabled=false} leaves the index empty.
+ */
+@Service
+public class SubAnagramIndex implements DictionaryListener {
+
+    @Value("${anagrams.index.enabled:true}")
+    private boolean enabled = true;
+
+    private final Node root = new Node();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Is the index enabled.
+     *
+     * @return true if sub-anagram queries are served from memory
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the words that can be formed from a subset of the letters, longest first.
+     *
+     * @param letters the rack of letters
+     * @param limit the maximum number of words to return
+     * @return the list
+     */
+    public List<String> getSubAnagrams(String letters, int limit) {
+        Rack rack = new Rack(AnagramImpl.signature(letters));
+        List<Node> matches = new ArrayList<>();
+        List<String> outputs = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            search(root, rack, 0, matches);
+            matches.sort((a, b) -> Integer.compare(b.depth, a.depth));
+
+            for (Node node : matches) {
+                for (String w : node.words) {
+                    if (outputs.size() >= limit)
+                        return outputs;
+                    outputs.add(w);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return outputs;
+    }
+
+    /**
+     * Get the anagram classes that can be formed from a subset of the letters, longest first.
+     *
+     * @param letters the rack of letters
+     * @return the map of signature to the words sharing it
+     */
+    public Map<String, List<String>> getSubAnagramClasses(String letters) {
+        Rack rack = new Rack(AnagramImpl.signature(letters));
+        List<Node> matches = new ArrayList<>();
+        Map<String, List<String>> classes = new LinkedHashMap<>();
+
+        lock.readLock().lock();
+        try {
+            search(root, rack, 0, matches);
+            matches.sort((a, b) -> Integer.compare(b.depth, a.depth));
+
+            for (Node node : matches) {
+                List<String> words = new ArrayList<>(node.words);
+                classes.put(AnagramImpl.signature(words.get(0)), words);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return classes;
+    }
+
+    /**
+     * Get the words that use every tile of a rack, where each blank ({@code ?} or {@code _})
+     * stands for any letter, in signature order.
+     *
+     * @param tiles the rack of letters and blanks
+     * @param limit the maximum number of words to return
+     * @return the list of words with the letters the blanks stood for
+     */
+    public List<BlankAnagram> getBlankAnagrams(String tiles, int limit) {
+        StringBuilder letters = new StringBuilder();
+        int blanks = 0;
+        for (char c : tiles.toCharArray()) {
+            if (c == '?' || c == '_')
+                blanks++;
+            else
+                letters.append(c);
+        }
+
+        String signature = letters.length() == 0 ? "" : AnagramImpl.signature(letters.toString());
+        Rack rack = new Rack(signature);
+        List<Node> matches = new ArrayList<>();
+        List<BlankAnagram> outputs = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            search(root, rack, signature.length(), blanks, matches, limit);
+
+            for (Node node : matches) {
+                for (String w : node.words) {
+                    if (outputs.size() >= limit)
+                        return outputs;
+                    outputs.add(new BlankAnagram(w, difference(AnagramImpl.signature(w), signature)));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return outputs;
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            for (Word w : words) {
+                Node node = root;
+                for (char c : AnagramImpl.signature(w.getValue()).toCharArray())
+                    node = node.childOrCreate(c);
+                if (node.words == null)
+                    node.words = new LinkedHashSet<>();
+                node.words.add(w.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            for (Word w : words)
+                remove(root, AnagramImpl.signature(w.getValue()), w.getValue());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void cleared() {
+        lock.writeLock().lock();
+        try {
+            root.keys = new char[0];
+            root.children = new Node[0];
+            root.words = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void search(Node node, Rack rack, int from, List<Node> matches) {
+        for (int i = from; i < rack.letters.length; i++) {
+            if (rack.counts[i] == 0)
+                continue;
+
+            Node child = node.child(rack.letters[i]);
+            if (child == null)
+                continue;
+
+            rack.counts[i]--;
+            if (child.words != null)
+                matches.add(child);
+            search(child, rack, i, matches);
+            rack.counts[i]++;
+        }
+    }
+
+    /**
+     * Collect the nodes spelled by every tile left: letters of the rack, taken in sorted
+     * order, and blanks, spent on the letters the rack does not have.
+     *
+     * @return the number of words in the nodes collected
+     */
+    private static int search(Node node, Rack rack, int letters, int blanks, List<Node> matches, int limit) {
+        if (letters == 0 && blanks == 0) {
+            if (node.words == null)
+                return 0;
+            matches.add(node);
+            return node.words.size();
+        }
+
+        int first = 0;
+        while (first < rack.letters.length && rack.counts[first] == 0)
+            first++;
+
+        int found = 0;
+        for (int i = 0; i < node.keys.length && found < limit; i++) {
+            char c = node.keys[i];
+            if (first < rack.letters.length && rack.letters[first] < c)
+                break;
+
+            if (first < rack.letters.length && rack.letters[first] == c) {
+                rack.counts[first]--;
+                found += search(node.children[i], rack, letters - 1, blanks, matches, limit - found);
+                rack.counts[first]++;
+            } else if (blanks > 0) {
+                found += search(node.children[i], rack, letters, blanks - 1, matches, limit - found);
+            }
+        }
+
+        return found;
+    }
+
+    /**
+     * Get the letters of a signature missing from another, in sorted order.
+     */
+    private static String difference(String signature, String letters) {
+        StringBuilder missing = new StringBuilder();
+        int j = 0;
+        for (int i = 0; i < signature.length(); i++) {
+            if (j < letters.length() && letters.charAt(j) == signature.charAt(i))
+                j++;
+            else
+                missing.append(signature.charAt(i));
+        }
+
+        return missing.toString();
+    }
+
+    /**
+     * Remove a word, pruning the nodes left without words or children.
+     *
+     * @return true if the node itself is now empty
+     */
+    private static boolean remove(Node node, String signature, String value) {
+        if (node.depth == signature.length()) {
+            if (node.words != null && node.words.remove(value) && node.words.isEmpty())
+                node.words = null;
+        } else {
+            char c = signature.charAt(node.depth);
+            Node child = node.child(c);
+            if (child != null && remove(child, signature, value))
+                node.removeChild(c);
+        }
+
+        return node.words == null && node.keys.length == 0;
+    }
+
+    /**
+     * The distinct letters of a rack, in sorted order, with how many of each are left.
+     */
+    private static class Rack {
+
+        private final char[] letters;
+
+        private final int[] counts;
+
+        private Rack(String signature) {
+            char[] letters = new char[signature.length()];
+            int[] counts = new int[signature.length()];
+            int n = 0;
+
+            for (int i = 0; i < signature.length(); i++) {
+                char c = signature.charAt(i);
+                if (n == 0 || letters[n - 1] != c)
+                    letters[n++] = c;
+                counts[n - 1]++;
+            }
+
+            this.letters = Arrays.copyOf(letters, n);
+            this.counts = Arrays.copyOf(counts, n);
+        }
+    }
+
+    /**
+     * A trie node with its children kept in two parallel arrays sorted by letter.
+     */
+    private static class Node {
+
+        private final int depth;
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private Set<String> words;
+
+        private Node() {
+            this(0);
+        }
+
+        private Node(int depth) {
+            this.depth = depth;
+        }
+
+        private Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+
+            return i < 0 ? null : children[i];
+        }
+
+        private Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0)
+                return children[i];
+
+            i = -i - 1;
+            Node child = new Node(depth + 1);
+            keys = insert(keys, i, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, i);
+            System.arraycopy(children, i, grown, i + 1, children.length - i);
+            grown[i] = child;
+            children = grown;
+
+            return child;
+        }
+
+        private void removeChild(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i < 0)
+                return;
+
+            char[] keys = new char[this.keys.length - 1];
+            Node[] children = new Node[this.children.length - 1];
+            System.arraycopy(this.keys, 0, keys, 0, i);
+            System.arraycopy(this.keys, i + 1, keys, i, keys.length - i);
+            System.arraycopy(this.children, 0, children, 0, i);
+            System.arraycopy(this.children, i + 1, children, i, children.length - i);
+            this.keys = keys;
+            this.children = children;
+        }
+
+        private static char[] insert(char[] keys, int i, char c) {
+            char[] grown = new char[keys.length + 1];
+            System.arraycopy(keys, 0, grown, 0, i);
+            System.arraycopy(keys, i, grown, i + 1, keys.length - i);
+            grown[i] = c;
+
+            return grown;
+        }
+    }
+}
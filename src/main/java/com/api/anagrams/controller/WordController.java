@@ -1,17 +1,55 @@
 package com.api.anagrams.controller;
 
+import com.api.anagrams.anagram.AnagramGroups;
 import com.api.anagrams.anagram.AnagramImpl;
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.anagram.AnagramQueryCache;
+import com.api.anagrams.anagram.DictionarySnapshot;
+import com.api.anagrams.anagram.PhraseAnagramSolver;
+import com.api.anagrams.anagram.SubAnagramIndex;
 import com.api.anagrams.exception.ResourceNotFoundException;
+import com.api.anagrams.exception.ServiceUnavailableException;
+import com.api.anagrams.metrics.AnagramMetrics;
+import com.api.anagrams.model.AnagramClass;
+import com.api.anagrams.model.AnagramGroup;
+import com.api.anagrams.model.BlankAnagram;
+import com.api.anagrams.model.IngestionSummary;
 import com.api.anagrams.model.Word;
 import com.api.anagrams.repository.WordRepository;
+import com.api.anagrams.service.DictionaryService;
+import com.api.anagrams.service.DictionarySnapshotService;
+import com.api.anagrams.service.DictionaryStats;
+import com.api.anagrams.service.HeavyOperationExecutor;
+import com.api.anagrams.service.WordCache;
+import com.api.anagrams.service.WordFilter;
+import com.api.anagrams.service.WordIngestionService;
+import com.api.anagrams.service.WordStore;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
-import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * The type Word controller.
@@ -25,15 +63,124 @@ public class WordController {
     @Autowired
     private WordRepository wordRepository;
 
+    @Autowired
+    private AnagramIndex anagramIndex;
+
+    @Autowired
+    private AnagramQueryCache anagramQueryCache;
+
+    @Autowired
+    private SubAnagramIndex subAnagramIndex;
+
+    @Autowired
+    private PhraseAnagramSolver phraseAnagramSolver;
+
+    @Autowired
+    private WordIngestionService wordIngestionService;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private DictionaryStats dictionaryStats;
+
+    @Autowired
+    private DictionarySnapshotService dictionarySnapshotService;
+
+    @Autowired
+    private WordStore wordStore;
+
+    @Autowired
+    private WordFilter wordFilter;
+
+    @Autowired
+    private WordCache wordCache;
+
+    @Autowired
+    private HeavyOperationExecutor heavyOperationExecutor;
+
+    @Autowired
+    private AnagramMetrics anagramMetrics;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final String NDJSON = "application/x-ndjson";
+
+    private static final int MAX_PAGE_SIZE = 10000;
+
+    private static final int FLUSH_INTERVAL = 500;
+
+    private static final long MAX_SEARCH_MILLIS = 30000;
+
+    private static final int MAX_EDITS = 2;
+
     /**
-     * Get all words list.
+     * Get a page of the words list, ordered by id, from the word store or else from the words table.
+     * The X-Next-Cursor header holds the id to pass as after for the next page.
      *
+     * @param afterId the id after which the page starts
+     * @param limit the page size
      * @return the list
      */
     @GetMapping("/words")
-    public List<Word> getAllWords() {
+    public ResponseEntity<List<Word>> getAllWords(@RequestParam(value = "after", defaultValue = "0") long afterId,
+                                                  @RequestParam(value = "limit", defaultValue = "1000") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Word> words;
+        if (wordStore.isEnabled() && dictionaryService.isReady()) {
+            words = wordStore.page(afterId, pageSize);
+        } else {
+            words = wordRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, pageSize));
+            anagramMetrics.rowsLoaded("page", words.size());
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+
+        if (words.size() == pageSize)
+            response.header("X-Next-Cursor", String.valueOf(words.get(words.size() - 1).getId()));
+
+        return response.body(words);
+    }
+
+    /**
+     * Stream all the words as newline-delimited JSON, ordered by id.
+     * Rows are read through a forward-only cursor and detached once written,
+     * so memory use does not depend on the size of the table.
+     *
+     * @return the streaming body
+     */
+    @GetMapping(value = "/words", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamAllWords() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+
+        StreamingResponseBody body = out -> transaction.execute(status -> {
+            try (Stream<Word> words = wordRepository.streamAll()) {
+                int written = 0;
+                Iterator<Word> it = words.iterator();
+                while (it.hasNext()) {
+                    Word w = it.next();
+                    out.write(objectMapper.writeValueAsBytes(w));
+                    out.write('\n');
+                    entityManager.detach(w);
+                    if (++written % FLUSH_INTERVAL == 0)
+                        out.flush();
+                }
+                out.flush();
+                anagramMetrics.rowsLoaded("stream", written);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
 
-        return wordRepository.findAll();
+        return ResponseEntity.ok().body(body);
     }
 
     /**
@@ -46,9 +193,9 @@ public class WordController {
     @GetMapping("/word/id/{id}")
     public ResponseEntity<Word> getWordById(@PathVariable(value = "id") Long wordId)
             throws ResourceNotFoundException {
-        Word word = wordRepository
-                        .findById(wordId)
-                        .orElseThrow(() -> new ResourceNotFoundException("Word not found on :: " + wordId));
+        Word word = wordCache.getById(wordId, () -> wordRepository.findById(wordId).orElse(null));
+        if (word == null)
+            throw new ResourceNotFoundException("Word not found on :: " + wordId);
 
         return ResponseEntity.ok().body(word);
     }
@@ -63,42 +210,52 @@ public class WordController {
     @GetMapping("/word/value/{value}")
     public ResponseEntity<Word> getWordByValue(@PathVariable(value = "value") String searchWord)
             throws ResourceNotFoundException {
-        Word word = wordRepository
-                        .findByValue(searchWord);
+        Word word = isMissing(searchWord) ? null
+                : wordCache.getByValue(searchWord, () -> wordRepository.findByValue(searchWord));
+        if (word == null)
+            throw new ResourceNotFoundException("Word not found on :: " + searchWord);
 
         return ResponseEntity.ok().body(word);
     }
 
     /**
-     * Get count, smallest word, largest word, avg length, median of the words list.
+     * Is a word certainly not in the words table, by the word filter. The filter only
+     * holds the words of other instances once their changes are applied, so its answer
+     * is only taken while no change in the log is left to apply. That is checked against
+     * the log as of the last poll, so a word just added by another instance may be
+     * reported missing for up to one {@code anagrams.sync.interval-millis} poll.
+     *
+     * @param value the word value
+     * @return true if the table need not be queried
+     */
+    private boolean isMissing(String value) {
+        return !wordFilter.mightContain(value) && dictionaryService.isCurrent();
+    }
+
+    /**
+     * Get count, smallest word, largest word, avg length, median, length histogram and
+     * anagram class count of the words list, from the running statistics.
      *
      * @return the list
      */
     @GetMapping("/words/stats")
     public List<String> getStats() {
-        Long count = wordRepository.count();
-        String minWord = wordRepository.findTop1ByOrderByValueAsc().getValue();
-        String maxWord = wordRepository.findTop1ByOrderByValueDesc().getValue();
-        List<Word> sortedWords = wordRepository.findAllByOrderByValueAsc();
-        int sum = 0, median = 0;
-
-        for(Word w: sortedWords) {
-            sum = sum + w.getValue().length();
-        }
+        requireReady();
 
-        if((sortedWords.size() != 0) && (sortedWords.size()%2 == 0))
-            median = (sortedWords.size()/2)-1;
-        else
-            median = sortedWords.size()/2;
+        return dictionaryStats.getStats();
+    }
 
-        List<String> stats = new ArrayList<>();
-        stats.add("count of words:"+ count);
-        stats.add("smallest word:"+ minWord+", size:"+minWord.length());
-        stats.add("largest word:"+ maxWord+", size:"+maxWord.length());
-        stats.add("avg length of the list of words:"+ sum/count);
-        stats.add("median word:"+sortedWords.get(median));
+    /**
+     * Rebuild the running statistics from the words table.
+     *
+     * @return the list
+     */
+    @PostMapping("/words/stats/rebuild")
+    public List<String> rebuildStats() {
+        requireReady();
+        dictionaryService.rebuild(wordStore, dictionaryStats);
 
-        return stats;
+        return dictionaryStats.getStats();
     }
 
     /**
@@ -111,86 +268,279 @@ public class WordController {
     @GetMapping("/words/anagrams/{value}/{listSize}")
     public List<String> getAnagrams(@PathVariable(value = "value") String anagramWord,
                                        @PathVariable(value = "listSize") int resultCount) {
-        List<Word> words = wordRepository.findAll();
+
+        return anagramMetrics.record("lookup", () ->
+                anagramQueryCache.getAnagrams(anagramWord, resultCount, () -> findAnagrams(anagramWord, Integer.MAX_VALUE)));
+    }
+
+    /**
+     * Get the anagrams of a word, from the index, the word store, the snapshot or else from
+     * the signature column.
+     *
+     * @param anagramWord the word value
+     * @param resultCount the count of the anagrams to be retrieved
+     * @return the list
+     */
+    private List<String> findAnagrams(String anagramWord, int resultCount) {
+        if (isIndexReady())
+            return anagramIndex.getAnagrams(anagramWord, resultCount);
+
+        if (wordStore.isEnabled() && dictionaryService.isReady())
+            return wordStore.getAnagrams(anagramWord, resultCount);
+
+        DictionarySnapshot snapshot = dictionarySnapshotService.getSnapshot();
+        if (snapshot != null)
+            return snapshot.getAnagrams(anagramWord, resultCount);
+
         List<String> outputs = new ArrayList<String>();
+        if (resultCount < 1)
+            return outputs;
 
-        for(Word w: words) {
-            String output = AnagramImpl.Anagram(anagramWord, w.getValue());
-            if(output != null && outputs.size() <= resultCount-1)
-                outputs.add(output);
-        }
+        List<Word> words = wordRepository.findBySignatureOrderByIdAsc(AnagramImpl.signature(anagramWord),
+                PageRequest.of(0, resultCount));
+        anagramMetrics.rowsLoaded("lookup", words.size());
+        for(Word w: words)
+            outputs.add(w.getValue());
 
         return outputs;
     }
 
+    /**
+     * Is the anagram index enabled and loaded.
+     *
+     * @return true if anagram queries can be served from memory
+     */
+    private boolean isIndexReady() {
+        return anagramIndex.isEnabled() && dictionaryService.isReady();
+    }
+
+    /**
+     * Fail with 503 unless an in-memory index with no fallback is enabled and loaded.
+     *
+     * @param enabled whether the index is enabled
+     */
+    private void requireLoaded(boolean enabled) {
+        if (!enabled)
+            throw new ServiceUnavailableException("The in-memory index is disabled");
+        requireReady();
+    }
+
+    /**
+     * Fail with 503 until the in-memory structures are loaded from the words table, rather
+     * than answer from them half loaded, or make a mutation wait for the load to finish.
+     */
+    private void requireReady() {
+        if (!dictionaryService.isReady())
+            throw new ServiceUnavailableException("The in-memory index is still loading");
+    }
+
+    /**
+     * Get the words that can be formed from a subset of the letters, longest first.
+     *
+     * @param letters the rack of letters
+     * @param limit the maximum number of words to return
+     * @return the list
+     */
+    @GetMapping("/words/subanagrams/{letters}")
+    public List<String> getSubAnagrams(@PathVariable(value = "letters") String letters,
+                                       @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        requireLoaded(subAnagramIndex.isEnabled());
+
+        return anagramMetrics.record("subanagram", () -> subAnagramIndex.getSubAnagrams(letters, limit));
+    }
+
+    /**
+     * Get the words that use every tile of a rack with blanks, and the letters the blanks stood for.
+     *
+     * @param tiles the rack, with {@code ?} or {@code _} for each blank
+     * @param limit the maximum number of words to return
+     * @return the list
+     */
+    @GetMapping("/words/blank-anagrams/{tiles}")
+    public List<BlankAnagram> getBlankAnagrams(@PathVariable(value = "tiles") String tiles,
+                                               @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        requireLoaded(subAnagramIndex.isEnabled());
+
+        return anagramMetrics.record("blanks", () -> subAnagramIndex.getBlankAnagrams(tiles, limit));
+    }
+
+    /**
+     * Get the words whose letters are within a few insertions, deletions or substitutions
+     * of the letters of a word, closest first.
+     *
+     * @param value the word value
+     * @param edits the maximum number of letter edits (at most 2)
+     * @param limit the maximum number of words to return
+     * @return the map of each word to its distance
+     */
+    @GetMapping("/words/near-anagrams/{value}")
+    public Map<String, Integer> getNearAnagrams(@PathVariable(value = "value") String value,
+                                                @RequestParam(value = "edits", defaultValue = "1") int edits,
+                                                @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        requireLoaded(anagramIndex.isEnabled());
+        int distance = Math.max(0, Math.min(edits, MAX_EDITS));
+
+        return anagramMetrics.record("near", () -> anagramIndex.getNearAnagrams(value, distance, limit));
+    }
+
+    /**
+     * Stream the multi-word anagrams of a phrase as newline-delimited JSON, one array of
+     * words per line, as soon as each is found.
+     *
+     * @param phrase the phrase
+     * @param limit the maximum number of solutions
+     * @param timeoutMillis the search time budget in milliseconds
+     * @return the streaming body
+     */
+    @GetMapping(value = "/words/phrase-anagrams/{phrase}", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> getPhraseAnagrams(@PathVariable(value = "phrase") String phrase,
+                                                                  @RequestParam(value = "limit", defaultValue = "100") int limit,
+                                                                  @RequestParam(value = "timeout", defaultValue = "2000") long timeoutMillis) {
+        requireLoaded(subAnagramIndex.isEnabled());
+        long budget = Math.max(0, Math.min(timeoutMillis, MAX_SEARCH_MILLIS));
+
+        StreamingResponseBody body = out -> anagramMetrics.record("phrase", () ->
+                phraseAnagramSolver.solve(phrase, limit, budget, solution -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(solution));
+                        out.write('\n');
+                        out.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+
+        return ResponseEntity.ok().body(body);
+    }
+
     /**
      * Get word with max anagrams.
      *
      * @return the string
      */
     @GetMapping("/words/anagrams/max")
-    public String getMaxAnagrams() {
-        List<Word> words = wordRepository.findAll();
-        HashMap<String, List<String>> map = findAllAnagrams(words);
-        HashMap<String, List<String>> smap = sortMap(map);
-        Iterator<Map.Entry<String, List<String>>> entries = smap.entrySet().iterator();
-        int flag = 0;
-
-        while (entries.hasNext()) {
-            flag++;
-            Map.Entry<String, List<String>> entry = entries.next();
-            String mapKey=entry.getKey();
-            if(flag == smap.size()) {
-                return "Key = " + mapKey + ", Value = " + smap.get(mapKey);
-            }
-        }
+    public DeferredResult<String> getMaxAnagrams() {
+
+        return heavyOperationExecutor.query("max", () -> {
+            List<String> largest = anagramMetrics.record("max", () -> anagramQueryCache.getLargestClass(this::findLargestClass));
 
-        return null;
+            if (largest.isEmpty())
+                return null;
+
+            return "Key = " + largest.get(0) + ", Value = " + largest;
+        });
     }
 
     /**
-     * Get all the anagrams for a word.
+     * Get the largest anagram class, from the index, the snapshot or else from the signature column.
      *
-     * @param words the list
-     * @return the map
+     * @return the list
      */
-    private HashMap<String, List<String>> findAllAnagrams(List<Word> words){
-        HashMap<String, List<String>> map = new HashMap<>();
-
-        for(Word w1 : words) {
-            List<String> outputs = new ArrayList<String>();
-            for(Word w2 : words) {
-                String output = AnagramImpl.Anagram(w1.getValue(), w2.getValue());
-                if (output != null)
-                    outputs.add(output);
-            }
-            map.put(w1.getValue(),outputs);
+    private List<String> findLargestClass() {
+        if (isIndexReady())
+            return anagramIndex.getLargestClass();
+
+        DictionarySnapshot snapshot = dictionarySnapshotService.getSnapshot();
+        if (snapshot != null)
+            return snapshot.getLargestClass();
+
+        List<String> outputs = new ArrayList<>();
+        for (AnagramClass c : wordRepository.findAnagramClasses(PageRequest.of(0, 1))) {
+            for (Word w : wordRepository.findBySignatureOrderByIdAsc(c.getSignature()))
+                outputs.add(w.getValue());
         }
+        anagramMetrics.rowsLoaded("max", outputs.size());
 
-        return map;
+        return outputs;
     }
 
     /**
-     * Get the list sorted by the anagrams result count for each word in the list.
+     * Get a page of the anagram classes ranked from the largest down.
      *
-     * @param map the word value and its anagrams
-     * @return the sorted map
+     * @param page the page number, from 0
+     * @param size the number of classes per page (max 10000)
+     * @return the list of classes with their words
      */
-    private HashMap<String, List<String>> sortMap(HashMap<String, List<String>> map) {
-        List<Map.Entry<String, List<String>> > list = new LinkedList<Map.Entry<String, List<String>> >(map.entrySet());
-        HashMap<String, List<String>> temp = new LinkedHashMap<String, List<String>>();
+    @GetMapping("/words/anagrams/top")
+    public DeferredResult<List<AnagramGroup>> getTopAnagramClasses(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                                  @RequestParam(value = "size", defaultValue = "100") int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        return heavyOperationExecutor.query("top", () -> anagramMetrics.record("top", () ->
+                findTopClasses(pageNumber, pageSize)));
+    }
 
-        Collections.sort(list, new Comparator<Map.Entry<String, List<String>> >() {
-            public int compare(Map.Entry<String, List<String>> o1, Map.Entry<String, List<String>> o2) {
-                return (Integer.compare(o1.getValue().size(), o2.getValue().size()));
+    /**
+     * Get a page of the classes ranked by size, from the index or else from the signature column.
+     *
+     * @param page the page number
+     * @param size the page size
+     * @return the list of classes
+     */
+    private List<AnagramGroup> findTopClasses(int page, int size) {
+        List<AnagramGroup> output = new ArrayList<>();
+        long offset = (long) page * size;
+
+        // there can't be that many classes, and the offset would not fit the index nor the query
+        if (offset > Integer.MAX_VALUE)
+            return output;
+
+        if (isIndexReady()) {
+            for (Map.Entry<String, List<String>> c : anagramIndex.getTopClasses((int) offset, size).entrySet()) {
+                HeavyOperationExecutor.checkDeadline();
+                output.add(new AnagramGroup(c.getKey(), c.getValue()));
             }
-        });
+            return output;
+        }
 
-        for (Map.Entry<String, List<String>> aa : list) {
-            temp.put(aa.getKey(), aa.getValue());
+        for (AnagramClass c : wordRepository.findAnagramClasses(PageRequest.of(page, size))) {
+            HeavyOperationExecutor.checkDeadline();
+            List<String> outputs = new ArrayList<>();
+            for (Word w : wordRepository.findBySignatureOrderByIdAsc(c.getSignature()))
+                outputs.add(w.getValue());
+            output.add(new AnagramGroup(c.getSignature(), outputs));
+            anagramMetrics.rowsLoaded("top", outputs.size());
         }
 
-        return temp;
+        return output;
+    }
+
+    /**
+     * Get the class size histogram: the number of anagram classes of each size.
+     *
+     * @return the map of class size to the number of classes
+     */
+    @GetMapping("/words/anagrams/histogram")
+    public DeferredResult<SortedMap<Integer, Integer>> getAnagramClassHistogram() {
+
+        return heavyOperationExecutor.query("histogram", () -> anagramMetrics.record("histogram", () -> {
+            if (isIndexReady())
+                return anagramIndex.getHistogram();
+
+            SortedMap<Integer, Integer> histogram = new TreeMap<>();
+            for (Object[] row : wordRepository.findClassSizeHistogram())
+                histogram.put(((Number) row[0]).intValue(), ((Number) row[1]).intValue());
+
+            return histogram;
+        }));
+    }
+
+    /**
+     * Get all the anagrams for a word.
+     *
+     * @param words the list
+     * @return the map
+     */
+    private HashMap<String, List<String>> findAllAnagrams(List<Word> words){
+        List<String> values = new ArrayList<>();
+
+        for(Word w : words)
+            values.add(w.getValue());
+
+        return new HashMap<>(AnagramGroups.of(values).getAnagramsByWord());
     }
 
     /**
@@ -198,7 +548,9 @@ public class WordController {
      *
      * @param stringWord containing more than one word
      * @return the map
+     * @deprecated the url limits the number of words; use POST /words/anagrams/batch
      */
+    @Deprecated
     @GetMapping("/words/anagrams/url/{value}")
     public HashMap<String, List<String>> getUrlAnagrams(@PathVariable(value = "value") String stringWord) {
         List<String> words = Arrays.asList(stringWord.split("\\s+"));
@@ -211,67 +563,138 @@ public class WordController {
             anagramWords.add(w);
         }
 
-        HashMap<String, List<String>> map = findAllAnagrams(anagramWords);
+        return anagramMetrics.record("url", () -> findAllAnagrams(anagramWords));
+    }
+
+    /**
+     * Get the dictionary anagrams of every word in the body, a JSON array or newline-delimited
+     * JSON strings. Each word is resolved as it is read and its result written straight back
+     * as one line of newline-delimited JSON: {"word": ..., "anagrams": [...]}. Words sharing a
+     * signature are resolved once per request.
+     *
+     * @param request the request
+     * @param response the response
+     * @throws IOException the io exception
+     */
+    @PostMapping(value = "/words/anagrams/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, NDJSON}, produces = NDJSON)
+    public void getBatchAnagrams(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        OutputStream out = response.getOutputStream();
+        Map<String, List<String>> classes = new HashMap<>();
+        int written = 0;
+
+        try (MappingIterator<String> words = objectMapper.readerFor(String.class).readValues(request.getInputStream())) {
+            while (words.hasNext()) {
+                HeavyOperationExecutor.checkDeadline();
+                String word = words.next();
+                List<String> anagrams = word == null || word.isEmpty() ? Collections.<String>emptyList()
+                        : classes.computeIfAbsent(AnagramImpl.signature(word),
+                                signature -> anagramMetrics.record("batch", () -> findAnagrams(word, Integer.MAX_VALUE)));
+
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("word", word);
+                result.put("anagrams", anagrams);
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+                if (++written % FLUSH_INTERVAL == 0)
+                    out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Write a memory-mapped snapshot of the dictionary, used to answer anagram queries
+     * from disk when the in-memory index is disabled or not yet warm.
+     *
+     * @return the map
+     */
+    @PostMapping("/words/snapshot")
+    public Map<String, Long> writeSnapshot() {
+        DictionarySnapshot snapshot = dictionarySnapshotService.write();
+        Map<String, Long> response = new LinkedHashMap<>();
+        response.put("words", snapshot.getWordCount());
+        response.put("classes", (long) snapshot.getClassCount());
+        response.put("bytes", snapshot.getSize());
 
-        return map;
+        return response;
     }
 
     /**
-     * Get word with anagrams list size of x.
+     * Get word with anagrams list size of x. As it always has, the response lists each
+     * class once per member word.
      *
      * @return the list
      */
     @GetMapping("/words/anagrams/{listSize}")
-    public List<List<String>> getXSizedAnagrams(@PathVariable(value = "listSize") int resultCount) {
-        List<Word> words = wordRepository.findAll();
-        HashMap<String, List<String>> map = findAllAnagrams(words);
-        List<List<String>> output = new ArrayList<>();
-        Iterator it = map.entrySet().iterator();
-
-        while (it.hasNext()) {
-            Map.Entry<String, List<String>> pair = (Map.Entry)it.next();
-            if(pair.getValue().size() == resultCount) {
-                output.add(pair.getValue());
+    public DeferredResult<List<List<String>>> getXSizedAnagrams(@PathVariable(value = "listSize") int resultCount) {
+
+        return heavyOperationExecutor.query("x-sized", () -> anagramMetrics.record("x-sized", () -> {
+            List<List<String>> output = new ArrayList<>();
+            for (List<String> c : anagramQueryCache.getClassesOfSize(resultCount, () -> findClassesOfSize(resultCount))) {
+                HeavyOperationExecutor.checkDeadline();
+                for (int i = 0; i < c.size(); i++)
+                    output.add(c);
             }
+
+            return output;
+        }));
+    }
+
+    /**
+     * Get every anagram class of a size, from the index or else from the signature column.
+     *
+     * @param resultCount the class size
+     * @return the list of classes
+     */
+    private List<List<String>> findClassesOfSize(int resultCount) {
+        if (isIndexReady())
+            return anagramIndex.getClassesOfSize(resultCount);
+
+        List<List<String>> output = new ArrayList<>();
+        for (AnagramClass c : wordRepository.findAnagramClassesBySize(resultCount)) {
+            HeavyOperationExecutor.checkDeadline();
+            List<String> outputs = new ArrayList<>();
+            for (Word w : wordRepository.findBySignatureOrderByIdAsc(c.getSignature()))
+                outputs.add(w.getValue());
+            output.add(outputs);
+            anagramMetrics.rowsLoaded("x-sized", outputs.size());
         }
 
         return output;
     }
 
     /**
-     * Create words words.
+     * Create words words, skipping the ones already stored.
      *
      * @param word the list of words
-     * @return the list
+     * @return the ingestion summary
      */
     @PostMapping("/words")
-    public List<Word> createWord(@Valid @RequestBody List<Word> word) {
+    public IngestionSummary createWord(@Valid @RequestBody List<Word> word) {
+        requireReady();
+        Iterator<String> values = word.stream().map(Word::getValue).iterator();
 
-        return wordRepository.saveAll(word);
+        return wordIngestionService.ingest("words", values);
     }
 
     /**
-     * Create words from dictionary.txt.
+     * Create words from dictionary.txt, streaming the file in batches.
      *
-     * @return the list
-     * @throws FileNotFoundException the file not found exception
+     * @return the ingestion summary
+     * @throws IOException the io exception
      */
     @PostMapping("/words/dictionary")
-    public List<Word> createWordsFromDictionary() throws FileNotFoundException {
-        ClassLoader classLoader = new WordController().getClass().getClassLoader();
-        File file = new File(classLoader.getResource("dictionary.txt").getFile());
-        Scanner s = new Scanner(file);
-        ArrayList<Word> words = new ArrayList<Word>();
-
-        while (s.hasNext()) {
-            Word w = new Word();
-            w.setValue(s.next());
-            words.add(w);
-        }
+    public IngestionSummary createWordsFromDictionary() throws IOException {
+        requireReady();
+        InputStream dictionary = getClass().getClassLoader().getResourceAsStream("dictionary.txt");
 
-        s.close();
+        if (dictionary == null)
+            throw new FileNotFoundException("dictionary.txt");
 
-        return wordRepository.saveAll(words);
+        try (Scanner s = new Scanner(new InputStreamReader(dictionary, StandardCharsets.UTF_8))) {
+            return wordIngestionService.ingest("dictionary", s);
+        }
     }
 
     /**
@@ -283,8 +706,10 @@ public class WordController {
     @DeleteMapping("/word/value/{value}")
     public Map<String, Boolean> deleteWord(@PathVariable(value = "value") String deleteWord)
             throws ResourceNotFoundException {
-        Word word = wordRepository.findByValue(deleteWord);
-        wordRepository.delete(word);
+        requireReady();
+        Word word = isMissing(deleteWord) ? null : dictionaryService.deleteWord(deleteWord);
+        if (word == null)
+            throw new ResourceNotFoundException("Word not found on :: " + deleteWord);
         Map<String, Boolean> response = new HashMap<>();
         response.put("deleted word:" +deleteWord, Boolean.TRUE);
 
@@ -292,49 +717,43 @@ public class WordController {
     }
 
     /**
-     * Delete a word with its anagrams.
+     * Delete a word with its anagrams: every word sharing its signature, in one statement.
      *
-     * @return the map
-     * @throws ResourceNotFoundException the resource not found exception
+     * @param deleteWord the word value
+     * @return the list of deleted words
      */
     @DeleteMapping("/words/anagrams/{value}")
-    public Map<String, Boolean> deleteAllAnagramWords(@PathVariable(value = "value") String deleteWord)
-            throws ResourceNotFoundException {
-        List<Word> words = wordRepository.findAll();
-        HashMap<String, List<String>> map = findAllAnagrams(words);
-        HashMap<String, List<String>> smap = sortMap(map);
-        System.out.println(smap);
-        Map<String, Boolean> response = new HashMap<>();
+    public DeferredResult<List<String>> deleteAllAnagramWords(@PathVariable(value = "value") String deleteWord) {
+        requireReady();
 
-        Iterator<Map.Entry<String, List<String>>> entries = smap.entrySet().iterator();
+        return heavyOperationExecutor.mutate("delete-class", () -> {
+            List<Word> words = anagramMetrics.record("delete-class", () -> dictionaryService.deleteAnagramClass(deleteWord));
+            anagramMetrics.rowsLoaded("delete-class", words.size());
+            List<String> deleted = new ArrayList<>();
 
-        while (entries.hasNext()) {
-            Map.Entry<String, List<String>> entry = entries.next();
-            String mapKey = entry.getKey();
-            if (mapKey.contains(deleteWord)) {
-                for (String delWord : smap.get(mapKey)) {
-                    Word word = wordRepository.findByValue(delWord);
-                    wordRepository.delete(word);
-                }
-                response.put("deletedAll", Boolean.TRUE);
-            }
-        }
+            for (Word w : words)
+                deleted.add(w.getValue());
 
-        return response;
+            return deleted;
+        });
     }
 
     /**
-     * Delete all the list of words.
+     * Delete all the list of words with a single statement.
      *
+     * @param resetIds true to truncate the table and restart the ids from 1
      * @return the map
      */
     @DeleteMapping("/words/all")
-    public Map<String, Boolean> deleteAllWords() {
-        List<Word> words = wordRepository.findAll();
-        wordRepository.deleteAll(words);
-        Map<String, Boolean> response = new HashMap<>();
-        response.put("deletedAll", Boolean.TRUE);
+    public DeferredResult<Map<String, Boolean>> deleteAllWords(@RequestParam(value = "resetIds", defaultValue = "false") boolean resetIds) {
+        requireReady();
 
-        return response;
+        return heavyOperationExecutor.mutate("delete-all", () -> {
+            dictionaryService.clear(resetIds);
+            Map<String, Boolean> response = new HashMap<>();
+            response.put("deletedAll", Boolean.TRUE);
+
+            return response;
+        });
     }
 }
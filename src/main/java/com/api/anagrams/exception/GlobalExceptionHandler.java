@@ -1,10 +1,12 @@
 package com.api.anagrams.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
 
 import java.util.Date;
 
@@ -31,6 +33,50 @@ public class GlobalExceptionHandler {
     return new ResponseEntity<>(errorDetails, HttpStatus.NOT_FOUND);
   }
 
+  /**
+   * Too many requests exception response entity, with a Retry-After header.
+   *
+   * @param ex the ex
+   * @param request the request
+   * @return the response entity
+   */
+  @ExceptionHandler(TooManyRequestsException.class)
+  public ResponseEntity<?> tooManyRequestsException(TooManyRequestsException ex, WebRequest request) {
+    ErrorResponse errorDetails =
+        new ErrorResponse(new Date(), HttpStatus.TOO_MANY_REQUESTS.toString(), ex.getMessage(), request.getDescription(false));
+    return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+        .body(errorDetails);
+  }
+
+  /**
+   * Service unavailable exception response entity.
+   *
+   * @param ex the ex
+   * @param request the request
+   * @return the response entity
+   */
+  @ExceptionHandler(ServiceUnavailableException.class)
+  public ResponseEntity<?> serviceUnavailableException(ServiceUnavailableException ex, WebRequest request) {
+    ErrorResponse errorDetails =
+        new ErrorResponse(new Date(), HttpStatus.SERVICE_UNAVAILABLE.toString(), ex.getMessage(), request.getDescription(false));
+    return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
+  /**
+   * Async request timeout exception response entity.
+   *
+   * @param ex the ex
+   * @param request the request
+   * @return the response entity
+   */
+  @ExceptionHandler(AsyncRequestTimeoutException.class)
+  public ResponseEntity<?> asyncRequestTimeoutException(AsyncRequestTimeoutException ex, WebRequest request) {
+    ErrorResponse errorDetails =
+        new ErrorResponse(new Date(), HttpStatus.SERVICE_UNAVAILABLE.toString(), "The request timed out", request.getDescription(false));
+    return new ResponseEntity<>(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+  }
+
   /**
    * Globle excpetion handler response entity.
    *
@@ -0,0 +1,21 @@
+package com.api.anagrams.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The type Service unavailable exception.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends RuntimeException {
+
+  /**
+   * Instantiates a new Service unavailable exception.
+   *
+   * @param message the message
+   */
+  public ServiceUnavailableException(String message) {
+
+    super(message);
+  }
+}
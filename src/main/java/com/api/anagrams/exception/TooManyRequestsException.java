@@ -0,0 +1,34 @@
+package com.api.anagrams.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * The type Too many requests exception.
+ */
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsException extends RuntimeException {
+
+  private final long retryAfterSeconds;
+
+  /**
+   * Instantiates a new Too many requests exception.
+   *
+   * @param message the message
+   * @param retryAfterSeconds the seconds after which the request may be retried
+   */
+  public TooManyRequestsException(String message, long retryAfterSeconds) {
+
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  /**
+   * Gets retry after seconds.
+   *
+   * @return the retry after seconds
+   */
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,107 @@
+package com.api.anagrams.metrics;
+
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.service.DictionaryStats;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The domain metrics of the anagram engine and the ingestion endpoints.
+ *
+ * <ul>
+ *     <li>anagrams.operation: timer with a percentile histogram, per operation</li>
+ *     <li>anagrams.rows.loaded: rows read from the database, per operation</li>
+ *     <li>anagrams.index.probes: signatures looked up in the anagram index by queries</li>
+ *     <li>anagrams.dictionary.size and anagrams.classes: gauges of the dictionary</li>
+ *     <li>anagrams.ingest and anagrams.ingest.words: ingestion timer and word counters</li>
+ * </ul>
+ */
+@Component
+public class AnagramMetrics {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private DictionaryStats dictionaryStats;
+
+    @Autowired
+    private AnagramIndex anagramIndex;
+
+    @PostConstruct
+    public void init() {
+        FunctionCounter.builder("anagrams.index.probes", anagramIndex, AnagramIndex::getProbes)
+                .description("Signatures looked up in the anagram index")
+                .register(meterRegistry);
+        Gauge.builder("anagrams.dictionary.size", dictionaryStats, DictionaryStats::getCount)
+                .description("Words in the dictionary")
+                .register(meterRegistry);
+        Gauge.builder("anagrams.classes", anagramIndex, AnagramIndex::getClassCount)
+                .description("Anagram classes in the index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Time an anagram operation.
+     *
+     * @param operation the operation name
+     * @param body the operation
+     * @return the result of the operation
+     */
+    public <T> T record(String operation, Supplier<T> body) {
+
+        return Timer.builder("anagrams.operation")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(body);
+    }
+
+    /**
+     * Record the rows an operation read from the database.
+     *
+     * @param operation the operation name
+     * @param rows the number of rows
+     */
+    public void rowsLoaded(String operation, long rows) {
+        DistributionSummary.builder("anagrams.rows.loaded")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(rows);
+    }
+
+    /**
+     * Record an ingestion.
+     *
+     * @param source the source of the words
+     * @param inserted the number of words inserted
+     * @param skipped the number of words skipped
+     * @param elapsedMillis the elapsed time in milliseconds
+     */
+    public void ingested(String source, long inserted, long skipped, long elapsedMillis) {
+        Timer.builder("anagrams.ingest")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(elapsedMillis, TimeUnit.MILLISECONDS);
+        Counter.builder("anagrams.ingest.words")
+                .tag("source", source)
+                .tag("result", "inserted")
+                .register(meterRegistry)
+                .increment(inserted);
+        Counter.builder("anagrams.ingest.words")
+                .tag("source", source)
+                .tag("result", "skipped")
+                .register(meterRegistry)
+                .increment(skipped);
+    }
+}
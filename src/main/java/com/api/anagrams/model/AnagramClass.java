@@ -0,0 +1,21 @@
+package com.api.anagrams.model;
+
+/**
+ * The projection of an anagram class: a signature and the number of words sharing it.
+ */
+public interface AnagramClass {
+
+    /**
+     * Gets signature.
+     *
+     * @return the signature
+     */
+    String getSignature();
+
+    /**
+     * Gets size.
+     *
+     * @return the size
+     */
+    long getSize();
+}
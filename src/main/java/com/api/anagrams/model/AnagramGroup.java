@@ -0,0 +1,42 @@
+package com.api.anagrams.model;
+
+import java.util.List;
+
+/**
+ * An anagram class with its words.
+ */
+public class AnagramGroup implements AnagramClass {
+
+    private String signature;
+    private List<String> words;
+
+    /**
+     * Instantiates a new Anagram group.
+     *
+     * @param signature the signature shared by the words
+     * @param words the words
+     */
+    public AnagramGroup(String signature, List<String> words) {
+        this.signature = signature;
+        this.words = words;
+    }
+
+    @Override
+    public String getSignature() {
+        return signature;
+    }
+
+    @Override
+    public long getSize() {
+        return words.size();
+    }
+
+    /**
+     * Gets words.
+     *
+     * @return the words
+     */
+    public List<String> getWords() {
+        return words;
+    }
+}
@@ -0,0 +1,39 @@
+package com.api.anagrams.model;
+
+/**
+ * A word spelled from a rack with blank tiles, and the letters the blanks stood for.
+ */
+public class BlankAnagram {
+
+    private String value;
+    private String blanks;
+
+    /**
+     * Instantiates a new Blank anagram.
+     *
+     * @param value the word value
+     * @param blanks the letters the blanks stood for, in sorted order
+     */
+    public BlankAnagram(String value, String blanks) {
+        this.value = value;
+        this.blanks = blanks;
+    }
+
+    /**
+     * Gets value.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Gets blanks.
+     *
+     * @return the blanks
+     */
+    public String getBlanks() {
+        return blanks;
+    }
+}
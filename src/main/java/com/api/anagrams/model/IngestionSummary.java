@@ -0,0 +1,51 @@
+package com.api.anagrams.model;
+
+/**
+ * The summary of a bulk ingestion.
+ */
+public class IngestionSummary {
+
+    private long inserted;
+    private long skipped;
+    private long elapsedMillis;
+
+    /**
+     * Instantiates a new Ingestion summary.
+     *
+     * @param inserted the number of words inserted
+     * @param skipped the number of duplicate or empty words skipped
+     * @param elapsedMillis the elapsed time in milliseconds
+     */
+    public IngestionSummary(long inserted, long skipped, long elapsedMillis) {
+        this.inserted = inserted;
+        this.skipped = skipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets inserted.
+     *
+     * @return the inserted
+     */
+    public long getInserted() {
+        return inserted;
+    }
+
+    /**
+     * Gets skipped.
+     *
+     * @return the skipped
+     */
+    public long getSkipped() {
+        return skipped;
+    }
+
+    /**
+     * Gets elapsed millis.
+     *
+     * @return the elapsed millis
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+}
@@ -1,5 +1,7 @@
 package com.api.anagrams.model;
 
+import com.api.anagrams.anagram.AnagramImpl;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import javax.persistence.*;
 import javax.persistence.Entity;
@@ -10,7 +12,7 @@ import javax.persistence.Entity;
  * @author Nagalakshmi Paramasivam
  */
 @Entity
-@Table(name = "words")
+@Table(name = "words", indexes = @Index(name = "idx_words_signature", columnList = "signature"))
 @EntityListeners(AuditingEntityListener.class)
 public class Word {
 
@@ -21,6 +23,10 @@ public class Word {
     @Column(name = "value", unique = true, nullable = false)
     private String value;
 
+    @JsonIgnore
+    @Column(name = "signature")
+    private String signature;
+
     /**
      * Gets id.
      *
@@ -58,6 +64,35 @@ public class Word {
         this.value = Value;
     }
 
+    /**
+     * Gets signature.
+     *
+     * @return the signature
+     */
+    public String getSignature() {
+        return signature;
+    }
+
+    /**
+     * Sets signature.
+     *
+     * @param signature the signature
+     */
+    public void setSignature(String signature) {
+        this.signature = signature;
+    }
+
+    /**
+     * Derive the signature from the value before the word is written.
+     */
+    @PrePersist
+    @PreUpdate
+    public void computeSignature() {
+        if (value == null || value.equals(""))
+            this.signature = "";
+        else
+            this.signature = AnagramImpl.signature(value);
+    }
 
     @Override
     public String toString() {
@@ -0,0 +1,128 @@
+package com.api.anagrams.model;
+
+import javax.persistence.*;
+
+/**
+ * The type Word change, one row of the change log of the words table.
+ *
+ * Every mutation appends its changes in the same transaction, numbered by seq, so other
+ * instances can replay them in order.
+ */
+@Entity
+@Table(name = "word_changes")
+public class WordChange {
+
+    /**
+     * The kind of change.
+     */
+    public enum Type {
+        ADDED, REMOVED, CLEARED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long seq;
+
+    @Column(name = "instance_id", length = 36, nullable = false)
+    private String instanceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", length = 8, nullable = false)
+    private Type type;
+
+    @Column(name = "word_id")
+    private long wordId;
+
+    @Column(name = "value", length = 150)
+    private String value;
+
+    /**
+     * Gets seq.
+     *
+     * @return the seq
+     */
+    public long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Sets seq.
+     *
+     * @param seq the seq
+     */
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    /**
+     * Gets the id of the instance that made the change.
+     *
+     * @return the instance id
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Sets instance id.
+     *
+     * @param instanceId the instance id
+     */
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+
+    /**
+     * Gets type.
+     *
+     * @return the type
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Sets type.
+     *
+     * @param type the type
+     */
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    /**
+     * Gets word id.
+     *
+     * @return the word id
+     */
+    public long getWordId() {
+        return wordId;
+    }
+
+    /**
+     * Sets word id.
+     *
+     * @param wordId the word id
+     */
+    public void setWordId(long wordId) {
+        this.wordId = wordId;
+    }
+
+    /**
+     * Gets value.
+     *
+     * @return the value
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Sets value.
+     *
+     * @param value the value
+     */
+    public void setValue(String value) {
+        this.value = value;
+    }
+}
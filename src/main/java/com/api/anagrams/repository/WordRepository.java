@@ -1,10 +1,20 @@
 package com.api.anagrams.repository;
 
+import com.api.anagrams.model.AnagramClass;
 import com.api.anagrams.model.Word;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 /**
  * The interface Word repository.
@@ -16,5 +26,33 @@ public interface WordRepository extends JpaRepository<Word, Long> {
     Word findByValue(String word);
     Word findTop1ByOrderByValueAsc();
     List<Word> findAllByOrderByValueAsc();
+    List<Word> findAllByOrderByValueAsc(Pageable pageable);
     Word findTop1ByOrderByValueDesc();
+
+    List<Word> findByIdGreaterThanOrderByIdAsc(long id, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select w from Word w order by w.id")
+    Stream<Word> streamAll();
+
+    List<Word> findBySignatureOrderByIdAsc(String signature);
+    List<Word> findBySignatureOrderByIdAsc(String signature, Pageable pageable);
+    long countBySignature(String signature);
+
+    @Modifying
+    @Query("delete from Word w where w.signature = :signature")
+    int deleteBySignature(@Param("signature") String signature);
+
+    @Query("select w.signature as signature, count(w) as size from Word w " +
+            "group by w.signature order by count(w) desc, w.signature")
+    List<AnagramClass> findAnagramClasses(Pageable pageable);
+
+    @Query(value = "select c.class_size, count(*) from " +
+            "(select count(*) as class_size from words group by signature) c group by c.class_size order by c.class_size",
+            nativeQuery = true)
+    List<Object[]> findClassSizeHistogram();
+
+    @Query("select w.signature as signature, count(w) as size from Word w " +
+            "group by w.signature having count(w) = :size")
+    List<AnagramClass> findAnagramClassesBySize(@Param("size") long size);
 }
@@ -0,0 +1,34 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+
+import java.util.Collection;
+
+/**
+ * The interface of in-memory structures derived from the words table.
+ *
+ * {@link DictionaryService} calls every listener after each committed change, and
+ * rebuilds them all from the table with {@link #cleared()} followed by
+ * {@link #wordsAdded(Collection)}.
+ */
+public interface DictionaryListener {
+
+    /**
+     * Words were inserted.
+     *
+     * @param words the list of words
+     */
+    void wordsAdded(Collection<Word> words);
+
+    /**
+     * Words were deleted.
+     *
+     * @param words the list of words
+     */
+    void wordsRemoved(Collection<Word> words);
+
+    /**
+     * Every word was deleted.
+     */
+    void cleared();
+}
@@ -0,0 +1,438 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.AnagramImpl;
+import com.api.anagrams.model.Word;
+import com.api.anagrams.model.WordChange;
+import com.api.anagrams.repository.WordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the in-memory structures derived from the words table in step with it.
+ *
+ * Mutations run here in their own transaction, and the listeners are only told about
+ * them once the transaction has committed. Ordinary mutations may run concurrently,
+ * but clearing and rebuilding exclude them, so no insert or delete can fall between
+ * the table being reset and the listeners being reset.
+ *
+ * Each mutation is appended to the {@link WordChangeLog} in its own transaction. The
+ * listeners track the position in the log up to which they reflect the table, and
+ * {@link #apply(long, List)} advances it with the changes made by other instances. A
+ * sequence number may commit after a later one, so a full rebuild does not start from
+ * the last change before loading but {@code anagrams.sync.replay} changes before it: the
+ * changes of that window missing from the log at the time, still uncommitted or rolled
+ * back, are applied if they turn up, and the others are skipped as already loaded.
+ * Replaying a change committed during a rebuild is harmless: the listeners key the words
+ * by id or by value, so a word added twice is held once and a word removed twice is
+ * removed once, and the caches and the word filter only drop entries or set bits.
+ */
+@Service
+public class DictionaryService {
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private List<DictionaryListener> listeners;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WordChangeLog changeLog;
+
+    @Value("${anagrams.sync.replay:100}")
+    private long replay;
+
+    private final ReadWriteLock mutations = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    private volatile long position;
+
+    private volatile long replayUntil;
+
+    private volatile Set<Long> late = Collections.emptySet();
+
+    /**
+     * Is every listener loaded from the words table.
+     *
+     * @return false until the first full rebuild completes
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Do the listeners reflect every change in the change log, made by any instance, as of
+     * the last read of the log. It does not read the log, so a change made by another
+     * instance may go unnoticed for up to one {@code anagrams.sync.interval-millis} poll.
+     *
+     * @return true if loaded and no change seen in the log is left to apply
+     */
+    public boolean isCurrent() {
+        return ready && position >= changeLog.getLastSeenSeq();
+    }
+
+    /**
+     * Gets the position in the change log up to which the listeners reflect the table.
+     *
+     * @return the seq of the last change applied
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Rebuild every listener from the words table. The listeners are marked as not ready
+     * until it completes, as they are emptied and refilled in place.
+     */
+    public void rebuild() {
+        ready = false;
+        mutations.writeLock().lock();
+        try {
+            // a rebuild of some listeners may have restored it while this one was waiting
+            ready = false;
+            long position = changeLog.getLastSeq();
+            Set<Long> missing = missingBefore(position);
+            rebuild(listeners);
+            replayFrom(position, missing);
+            ready = true;
+        } finally {
+            mutations.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild every listener from the words table, loading it in id ranges of chunkSize
+     * on the pool. Chunks are loaded ahead in parallel but handed to the listeners in id
+     * order, and each chunk goes to the listeners one after the other in their order, as
+     * every other notification does. The listeners are marked as not ready before waiting
+     * for the running mutations, so callers can turn new ones away instead of queueing them
+     * behind the whole load.
+     *
+     * @param pool the pool
+     * @param chunkSize the number of ids per chunk
+     * @param progress called with the number of words of each chunk once it is loaded
+     */
+    public void rebuild(ForkJoinPool pool, long chunkSize, LongConsumer progress) {
+        ready = false;
+        mutations.writeLock().lock();
+        try {
+            ready = false;
+            long position = changeLog.getLastSeq();
+            Set<Long> missing = missingBefore(position);
+            long[] range = jdbcTemplate.queryForObject("SELECT COALESCE(MIN(id), 0), COALESCE(MAX(id), 0) FROM words",
+                    (rs, i) -> new long[]{rs.getLong(1) - 1, rs.getLong(2)});
+            Deque<ForkJoinTask<List<Word>>> loads = new ArrayDeque<>();
+            long next = range[0];
+
+            for (DictionaryListener l : listeners)
+                l.cleared();
+
+            while (next < range[1] || !loads.isEmpty()) {
+                while (next < range[1] && loads.size() < pool.getParallelism()) {
+                    long after = next;
+                    long last = Math.min(next + chunkSize, range[1]);
+                    loads.add(pool.submit(() -> load(after, last)));
+                    next = last;
+                }
+
+                List<Word> words = loads.poll().join();
+                for (DictionaryListener l : listeners)
+                    l.wordsAdded(words);
+                progress.accept(words.size());
+            }
+            replayFrom(position, missing);
+            ready = true;
+        } finally {
+            mutations.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild some listeners from the words table. The listeners are marked as not ready
+     * while they are emptied and refilled, then as they were before.
+     *
+     * @param targets the listeners to rebuild
+     */
+    public void rebuild(DictionaryListener... targets) {
+        rebuild(Arrays.asList(targets));
+    }
+
+    /**
+     * Run a mutation of the words table, which must notify the listeners itself once committed.
+     *
+     * @param mutation the mutation
+     * @return the result of the mutation
+     */
+    public <T> T mutate(Supplier<T> mutation) {
+        mutations.readLock().lock();
+        try {
+            return mutation.get();
+        } finally {
+            mutations.readLock().unlock();
+        }
+    }
+
+    /**
+     * Delete a word.
+     *
+     * @param value the word value
+     * @return the deleted word, null if there is no such word
+     */
+    public Word deleteWord(String value) {
+        return mutate(() -> {
+            Word word = transaction().execute(status -> {
+                Word found = wordRepository.findByValue(value);
+                if (found != null) {
+                    wordRepository.delete(found);
+                    changeLog.removed(Collections.singletonList(found));
+                }
+                return found;
+            });
+            if (word != null)
+                wordsRemoved(Collections.singletonList(word));
+
+            return word;
+        });
+    }
+
+    /**
+     * Delete a word and all of its anagrams with one statement.
+     *
+     * @param value the word value
+     * @return the deleted words, in id order
+     */
+    public List<Word> deleteAnagramClass(String value) {
+        String signature = AnagramImpl.signature(value);
+
+        return mutate(() -> {
+            List<Word> words = transaction().execute(status -> {
+                List<Word> found = wordRepository.findBySignatureOrderByIdAsc(signature);
+                if (!found.isEmpty()) {
+                    wordRepository.deleteBySignature(signature);
+                    changeLog.removed(found);
+                }
+                return found;
+            });
+            wordsRemoved(words);
+
+            return words;
+        });
+    }
+
+    /**
+     * Delete every word with a single statement and reset every listener.
+     *
+     * @param resetIds true to truncate the table and restart the id sequence
+     */
+    public void clear(boolean resetIds) {
+        mutations.writeLock().lock();
+        try {
+            if (resetIds) {
+                // TRUNCATE commits on its own, so the change is logged right after it
+                int timeout = HeavyOperationExecutor.getRemainingSeconds();
+                jdbcTemplate.execute((StatementCallback<Boolean>) statement -> {
+                    if (timeout > 0)
+                        statement.setQueryTimeout(timeout);
+                    return statement.execute("TRUNCATE TABLE words");
+                });
+                if (!isMySql())
+                    jdbcTemplate.execute("ALTER TABLE words ALTER COLUMN id RESTART WITH 1");
+                changeLog.cleared();
+            } else {
+                transaction().execute(status -> {
+                    wordRepository.deleteAllInBatch();
+                    changeLog.cleared();
+                    return null;
+                });
+            }
+            cleared();
+        } finally {
+            mutations.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply the changes made by other instances since a position in the change log.
+     * Consecutive changes of the same type are handed to the listeners together.
+     *
+     * @param from the position the changes were read from
+     * @param changes the changes following it, in order
+     * @return false if the listeners were rebuilt since, and the changes ignored
+     */
+    public boolean apply(long from, List<WordChange> changes) {
+        return mutate(() -> {
+            if (position != from)
+                return false;
+
+            List<Word> batch = new ArrayList<>();
+            WordChange.Type type = null;
+            for (WordChange c : changes) {
+                boolean loaded = c.getSeq() <= replayUntil && !late.contains(c.getSeq());
+                boolean own = c.getSeq() > replayUntil && changeLog.getInstanceId().equals(c.getInstanceId());
+                if (loaded || own)
+                    continue;
+                if (c.getType() != type || c.getType() == WordChange.Type.CLEARED) {
+                    notify(type, batch);
+                    batch = new ArrayList<>();
+                    type = c.getType();
+                }
+
+                Word w = new Word();
+                w.setId(c.getWordId());
+                w.setValue(c.getValue());
+                batch.add(w);
+            }
+            notify(type, batch);
+            if (!changes.isEmpty())
+                position = changes.get(changes.size() - 1).getSeq();
+
+            return true;
+        });
+    }
+
+    /**
+     * Notify every listener that words were inserted.
+     *
+     * @param words the list of words
+     */
+    public void wordsAdded(Collection<Word> words) {
+        if (words.isEmpty())
+            return;
+
+        for (DictionaryListener l : listeners)
+            l.wordsAdded(words);
+    }
+
+    /**
+     * Notify every listener that words were deleted.
+     *
+     * @param words the list of words
+     */
+    public void wordsRemoved(Collection<Word> words) {
+        if (words.isEmpty())
+            return;
+
+        for (DictionaryListener l : listeners)
+            l.wordsRemoved(words);
+    }
+
+    /**
+     * Notify every listener that the table was emptied.
+     */
+    public void cleared() {
+        for (DictionaryListener l : listeners)
+            l.cleared();
+    }
+
+    /**
+     * Get the sequence numbers of the replay window before a change that are missing from
+     * the log, as their transactions are still running or were rolled back.
+     */
+    private Set<Long> missingBefore(long lastSeq) {
+        long from = Math.max(0, lastSeq - replay);
+        Set<Long> missing = new HashSet<>();
+        for (long seq = from + 1; seq <= lastSeq; seq++)
+            missing.add(seq);
+        missing.removeAll(changeLog.getSeqs(from, lastSeq));
+
+        return missing;
+    }
+
+    /**
+     * Move the position back by the replay window before the last change seen by a rebuild,
+     * so the changes of the window it missed are still applied if they commit later.
+     */
+    private void replayFrom(long lastSeq, Set<Long> missing) {
+        late = missing;
+        replayUntil = lastSeq;
+        position = Math.max(0, lastSeq - replay);
+    }
+
+    private void rebuild(List<DictionaryListener> targets) {
+        mutations.writeLock().lock();
+        boolean wasReady = ready;
+        ready = false;
+        try {
+            List<Word> words = wordRepository.findAll();
+
+            for (DictionaryListener l : targets) {
+                l.cleared();
+                l.wordsAdded(words);
+            }
+        } finally {
+            ready = wasReady;
+            mutations.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Get a template of the transactions of the mutations, which time out with the heavy
+     * operation running them, if any.
+     */
+    private TransactionTemplate transaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setTimeout(HeavyOperationExecutor.getRemainingSeconds());
+
+        return transaction;
+    }
+
+    private void notify(WordChange.Type type, List<Word> words) {
+        if (type == WordChange.Type.ADDED)
+            wordsAdded(words);
+        else if (type == WordChange.Type.REMOVED)
+            wordsRemoved(words);
+        else if (type == WordChange.Type.CLEARED)
+            cleared();
+    }
+
+    private List<Word> load(long afterId, long lastId) {
+        List<Word> words = jdbcTemplate.query("SELECT id, value, signature FROM words WHERE id > ? AND id <= ? ORDER BY id",
+                (rs, rowNum) -> {
+                    Word w = new Word();
+                    w.setId(rs.getLong("id"));
+                    w.setValue(rs.getString("value"));
+                    w.setSignature(rs.getString("signature"));
+                    return w;
+                }, afterId, lastId);
+        for (Word w : words) {
+            if (w.getSignature() == null)
+                w.computeSignature();
+        }
+
+        return words;
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+
+        return "MySQL".equalsIgnoreCase(product);
+    }
+}
@@ -0,0 +1,148 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.DictionarySnapshot;
+import com.api.anagrams.model.Word;
+import com.api.anagrams.repository.WordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.stream.Stream;
+
+/**
+ * Writes the dictionary snapshot and keeps track of whether it still matches the words table.
+ *
+ * A snapshot records the last change of the {@link WordChangeLog} it reflects, and is only
+ * current while that is still the last change in the log, so a change committed by any
+ * instance, including emptying the table, retires it until the next one is written, on
+ * demand or on the {@code anagrams.snapshot.cron} schedule, which skips a snapshot still
+ * current. The check is made in memory: a change of this instance retires the snapshot at
+ * once, a change of another instance once the tailer reads it, up to one
+ * {@code anagrams.sync.interval-millis} later. A stale snapshot file is ignored at startup.
+ * Until the anagram index is warm, lookups are answered from the snapshot.
+ */
+@Service
+public class DictionarySnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DictionarySnapshotService.class);
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private WordChangeLog changeLog;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${anagrams.snapshot.path:anagrams.snapshot}")
+    private String path;
+
+    private volatile Current current;
+
+    /**
+     * Map the snapshot file if it matches the words table.
+     */
+    @PostConstruct
+    public void open() {
+        Path file = Paths.get(path);
+        if (!Files.exists(file))
+            return;
+
+        try {
+            DictionarySnapshot opened = DictionarySnapshot.open(file);
+            long lastSeq = changeLog.getLastSeq();
+            if (opened.isCurrent(lastSeq)) {
+                current = new Current(opened, changeLog.getAppendCount());
+                LOG.info("Opened dictionary snapshot of {} words in {} classes", opened.getWordCount(), opened.getClassCount());
+            } else {
+                LOG.info("Ignoring stale dictionary snapshot as of change {}, the change log is at {}",
+                        opened.getChangeSeq(), lastSeq);
+            }
+        } catch (IOException | DataAccessException e) {
+            LOG.warn("Cannot open dictionary snapshot {}", file, e);
+        }
+    }
+
+    /**
+     * Gets the current snapshot.
+     *
+     * @return the snapshot, null if there is none matching the words table
+     */
+    public DictionarySnapshot getSnapshot() {
+        Current current = this.current;
+        if (current == null || current.appendCount != changeLog.getAppendCount())
+            return null;
+
+        return current.snapshot.isCurrent(changeLog.getLastSeenSeq()) ? current.snapshot : null;
+    }
+
+    /**
+     * Write a snapshot of the words table and make it current, unless the table
+     * changed while it was being written.
+     *
+     * @return the snapshot written
+     */
+    public DictionarySnapshot write() {
+        long appendCount = changeLog.getAppendCount();
+        long lastSeq = changeLog.getLastSeq();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        DictionarySnapshot written = transaction.execute(status -> {
+            try (Stream<Word> words = wordRepository.streamAll()) {
+                return DictionarySnapshot.write(Paths.get(path), lastSeq, words.peek(entityManager::detach).iterator());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        current = new Current(written, appendCount);
+        LOG.info("Wrote dictionary snapshot of {} words in {} classes, {} bytes",
+                written.getWordCount(), written.getClassCount(), written.getSize());
+
+        return written;
+    }
+
+    /**
+     * Write a snapshot on the configured schedule, unless the current one still matches
+     * the words table.
+     */
+    @Scheduled(cron = "${anagrams.snapshot.cron:0 */5 * * * *}")
+    public void scheduledWrite() {
+        if (getSnapshot() == null)
+            write();
+    }
+
+    /**
+     * A snapshot and the number of appends this instance had made to the change log
+     * before it was written.
+     */
+    private static final class Current {
+
+        private final DictionarySnapshot snapshot;
+
+        private final long appendCount;
+
+        private Current(DictionarySnapshot snapshot, long appendCount) {
+            this.snapshot = snapshot;
+            this.appendCount = appendCount;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.model.Word;
+import com.api.anagrams.repository.WordRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Running statistics of the words table.
+ *
+ * Everything is read from {@link WordStore}, which knows which words it holds. When the
+ * store is disabled, count, total length and the length histogram are kept here as running
+ * aggregates over the ids seen, so a word delivered twice is only counted once, and the
+ * smallest, largest and median words are read from the words table by rank.
+ */
+@Component
+public class DictionaryStats implements DictionaryListener {
+
+    @Autowired
+    private AnagramIndex anagramIndex;
+
+    @Autowired
+    private WordStore wordStore;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    private final SortedMap<Integer, Long> lengths = new TreeMap<>();
+
+    private final Set<Long> ids = new HashSet<>();
+
+    private long count;
+
+    private long totalLength;
+
+    /**
+     * Get count, smallest word, largest word, avg length, median, length histogram and
+     * number of anagram classes.
+     *
+     * @return the list
+     */
+    public synchronized List<String> getStats() {
+        List<String> stats = new ArrayList<>();
+        long count = getCount();
+
+        stats.add("count of words:" + count);
+        if (count == 0)
+            return stats;
+
+        Word minWord = getByValueRank(0);
+        Word maxWord = getByValueRank(count - 1);
+        Word median = getByValueRank((count - 1) / 2);
+        if (minWord == null || maxWord == null || median == null)
+            return stats;
+
+        stats.add("smallest word:" + minWord.getValue() + ", size:" + minWord.getValue().length());
+        stats.add("largest word:" + maxWord.getValue() + ", size:" + maxWord.getValue().length());
+        stats.add("avg length of the list of words:" + (double) getTotalLength() / count);
+        stats.add("median word:" + median);
+        stats.add("length histogram:" + getLengthHistogram());
+        if (anagramIndex.isEnabled())
+            stats.add("anagram classes:" + anagramIndex.getClassCount());
+
+        return stats;
+    }
+
+    /**
+     * Get the number of words.
+     *
+     * @return the count
+     */
+    public synchronized long getCount() {
+        return wordStore.isEnabled() ? wordStore.size() : count;
+    }
+
+    private long getTotalLength() {
+        return wordStore.isEnabled() ? wordStore.getTotalLength() : totalLength;
+    }
+
+    private SortedMap<Integer, Long> getLengthHistogram() {
+        return wordStore.isEnabled() ? wordStore.getLengthHistogram() : lengths;
+    }
+
+    @Override
+    public synchronized void wordsAdded(Collection<Word> words) {
+        if (wordStore.isEnabled())
+            return;
+
+        for (Word w : words) {
+            if (!ids.add(w.getId()))
+                continue;
+            count++;
+            totalLength += w.getValue().length();
+            lengths.merge(w.getValue().length(), 1L, Long::sum);
+        }
+    }
+
+    @Override
+    public synchronized void wordsRemoved(Collection<Word> words) {
+        if (wordStore.isEnabled())
+            return;
+
+        for (Word w : words) {
+            if (!ids.remove(w.getId()))
+                continue;
+            count--;
+            totalLength -= w.getValue().length();
+            if (lengths.merge(w.getValue().length(), -1L, Long::sum) == 0)
+                lengths.remove(w.getValue().length());
+        }
+    }
+
+    @Override
+    public synchronized void cleared() {
+        lengths.clear();
+        ids.clear();
+        count = 0;
+        totalLength = 0;
+    }
+
+    /**
+     * Get the word of a rank in value order, from the store or else from the words table.
+     */
+    private Word getByValueRank(long rank) {
+        if (wordStore.isEnabled())
+            return wordStore.getByValueRank((int) rank);
+
+        List<Word> words = wordRepository.findAllByOrderByValueAsc(PageRequest.of((int) rank, 1));
+
+        return words.isEmpty() ? null : words.get(0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.repository.WordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the dictionary into every listener once the application has started.
+ *
+ * The words table is read in id ranges of {@code anagrams.warmup.chunk-size} on a pool of
+ * {@code anagrams.warmup.parallelism} threads, in the background, so the server is up
+ * meanwhile and answers from the snapshot or the database. The dictionaryWarmup health
+ * indicator is DOWN, with the progress so far, until the warm-up completes. The word
+ * filter is then rebuilt, sized for the words loaded. Setting
+ * {@code anagrams.warmup.enabled=false} loads the dictionary on the startup thread
+ * instead, so the application only starts serving once it is loaded.
+ */
+@Component
+public class DictionaryWarmup implements ApplicationRunner, HealthIndicator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DictionaryWarmup.class);
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private WordFilter wordFilter;
+
+    @Value("${anagrams.warmup.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${anagrams.warmup.chunk-size:50000}")
+    private long chunkSize;
+
+    @Value("${anagrams.warmup.parallelism:0}")
+    private int parallelism;
+
+    private final AtomicLong loaded = new AtomicLong();
+
+    private volatile long total;
+
+    private volatile Throwable failure;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            long started = System.currentTimeMillis();
+            dictionaryService.rebuild();
+            LOG.info("Loaded the dictionary in {} ms", System.currentTimeMillis() - started);
+            return;
+        }
+
+        Thread thread = new Thread(this::warmUp, "dictionary-warmup");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Load every listener from the words table.
+     */
+    public void warmUp() {
+        ForkJoinPool pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        long started = System.currentTimeMillis();
+        loaded.set(0);
+        failure = null;
+
+        try {
+            total = wordRepository.count();
+            LOG.info("Warming up the dictionary: {} words in chunks of {} ids on {} threads",
+                    total, chunkSize, pool.getParallelism());
+            dictionaryService.rebuild(pool, chunkSize, n -> {
+                long done = loaded.addAndGet(n);
+                LOG.debug("Warmed up {} of {} words", done, total);
+            });
+            wordFilter.rebuild();
+            LOG.info("Warmed up {} words in {} ms", loaded.get(), System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            failure = e;
+            LOG.error("Dictionary warm-up failed", e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder health = dictionaryService.isReady() ? Health.up() : Health.down();
+        health.withDetail("loaded", loaded.get()).withDetail("total", total);
+        if (failure != null)
+            health.withException(failure);
+
+        return health.build();
+    }
+}
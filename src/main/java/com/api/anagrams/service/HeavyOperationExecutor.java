@@ -0,0 +1,199 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs the heavy operations off the servlet threads, with admission control.
+ *
+ * Operations run on a bounded pool with a bounded queue, so the servlet threads are
+ * released at once and stay free for point lookups. Each operation may only have
+ * {@code anagrams.heavy.max-concurrent} requests running or queued; beyond that, or once
+ * the queue is full, requests are shed at once with a {@link TooManyRequestsException}.
+ * A request still unanswered after {@code anagrams.heavy.timeout-millis} fails with 503,
+ * and its work is dropped from the queue, or interrupted if it is read-only.
+ *
+ * The same deadline stops the work. A query runs in a read-only transaction timing out
+ * with it, so every statement it sends is given the remaining time as its query timeout,
+ * and no statement is started past it; its loops in memory call {@link #checkDeadline()}.
+ * A mutation runs its transactions with the remaining time as their timeout, so one still
+ * running at the deadline rolls back rather than commits. The deadline is rounded up to
+ * the second for the database. The operation holds its permit until it stops.
+ */
+@Service
+public class HeavyOperationExecutor {
+
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${anagrams.heavy.threads:4}")
+    private int threads;
+
+    @Value("${anagrams.heavy.queue-capacity:16}")
+    private int queueCapacity;
+
+    @Value("${anagrams.heavy.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${anagrams.heavy.timeout-millis:10000}")
+    private long timeoutMillis;
+
+    @Value("${anagrams.heavy.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+
+    private final Map<String, Semaphore> permits = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> new Thread(r, "heavy-" + count.incrementAndGet()));
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "anagrams.heavy", Collections.emptyList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Fail if the current thread was interrupted or its heavy operation is past its deadline.
+     */
+    public static void checkDeadline() {
+        Long deadline = DEADLINE.get();
+
+        if (Thread.currentThread().isInterrupted() || deadline != null && System.nanoTime() - deadline >= 0)
+            throw new AsyncRequestTimeoutException();
+    }
+
+    /**
+     * Gets the time left to the heavy operation running on the current thread, as a
+     * transaction timeout.
+     *
+     * @return the seconds left, rounded up, or the default timeout outside of a heavy operation
+     */
+    public static int getRemainingSeconds() {
+        Long deadline = DEADLINE.get();
+        if (deadline == null)
+            return TransactionDefinition.TIMEOUT_DEFAULT;
+
+        checkDeadline();
+
+        return (int) TimeUnit.NANOSECONDS.toSeconds(deadline - System.nanoTime() + TimeUnit.SECONDS.toNanos(1) - 1);
+    }
+
+    /**
+     * Run a read-only operation, interrupting it if the request times out.
+     *
+     * @param operation the operation name
+     * @param work the operation
+     * @return the deferred result
+     */
+    public <T> DeferredResult<T> query(String operation, Supplier<T> work) {
+        return submit(operation, work, true);
+    }
+
+    /**
+     * Run a mutation, which is not interrupted if the request times out, but whose
+     * transactions time out with it.
+     *
+     * @param operation the operation name
+     * @param work the operation
+     * @return the deferred result
+     */
+    public <T> DeferredResult<T> mutate(String operation, Supplier<T> work) {
+        return submit(operation, work, false);
+    }
+
+    private <T> DeferredResult<T> submit(String operation, Supplier<T> work, boolean interruptible) {
+        Semaphore semaphore = permits.computeIfAbsent(operation, k -> new Semaphore(maxConcurrent));
+        if (!semaphore.tryAcquire())
+            throw new TooManyRequestsException("Too many concurrent " + operation + " requests", retryAfterSeconds);
+
+        AtomicBoolean started = new AtomicBoolean();
+        AtomicBoolean held = new AtomicBoolean(true);
+        Runnable release = () -> {
+            if (held.compareAndSet(true, false))
+                semaphore.release();
+        };
+        DeferredResult<T> result = new DeferredResult<>(timeoutMillis);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<?> future;
+
+        try {
+            future = executor.submit(() -> {
+                started.set(true);
+                DEADLINE.set(deadline);
+                try {
+                    if (result.isSetOrExpired())
+                        return;
+                    T value = interruptible ? readOnly(work) : work.get();
+                    // Release before answering, so a client sending its next request
+                    // on the response is not shed.
+                    release.run();
+                    result.setResult(value);
+                } catch (Throwable e) {
+                    release.run();
+                    result.setErrorResult(e);
+                } finally {
+                    DEADLINE.remove();
+                    release.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            release.run();
+            throw new TooManyRequestsException("The " + operation + " queue is full", retryAfterSeconds);
+        }
+
+        result.onTimeout(() -> {
+            future.cancel(interruptible);
+            if (!started.get()) {
+                executor.purge();
+                release.run();
+            }
+            result.setErrorResult(new AsyncRequestTimeoutException());
+        });
+
+        return result;
+    }
+
+    private <T> T readOnly(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.setTimeout(getRemainingSeconds());
+
+        return transaction.execute(status -> work.get());
+    }
+}
@@ -0,0 +1,66 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.AnagramImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills in the signature column of rows written before it existed.
+ *
+ * Runs once at startup in chunks of 500 rows, each chunk a single JDBC batch of updates
+ * in its own transaction, without loading the rows as entities.
+ */
+@Component
+public class SignatureBackfill implements ApplicationRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SignatureBackfill.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    /**
+     * Compute the signature of every word that has none.
+     *
+     * @return the number of words updated
+     */
+    public long backfill() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long updated = 0;
+        int count;
+
+        do {
+            count = transaction.execute(status -> {
+                List<Object[]> rows = jdbcTemplate.query(
+                        "SELECT id, value FROM words WHERE signature IS NULL ORDER BY id LIMIT " + CHUNK_SIZE,
+                        (rs, i) -> new Object[]{AnagramImpl.signature(rs.getString("value")), rs.getLong("id")});
+                jdbcTemplate.batchUpdate("UPDATE words SET signature = ? WHERE id = ?", rows);
+                return rows.size();
+            });
+            updated += count;
+        } while (count == CHUNK_SIZE);
+
+        if (updated > 0)
+            LOG.info("Backfilled signature of {} words", updated);
+
+        return updated;
+    }
+}
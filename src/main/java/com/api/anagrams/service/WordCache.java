@@ -0,0 +1,198 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * The near-cache of the point lookups of words, by id and by value.
+ *
+ * Each cache is bounded by the estimated heap its entries take, {@code words.cache.max-bytes},
+ * and evicts by Caffeine's W-TinyLFU policy, so a burst of one-off lookups does not push
+ * out the words looked up over and over. Only words found are cached, as detached copies;
+ * misses are left to the {@link WordFilter}. Every change to the dictionary drops the
+ * entries of the words it touched: by id, by the value itself, and by any other case of the
+ * value, since the table may compare values without case. The cached cases of each value are
+ * indexed by its lower case, so a change finds them without scanning the cache. Hit, miss and eviction counts
+ * are published to the actuator metrics as the words.id and words.value cache metrics,
+ * and the estimated footprint as words.cache.bytes.
+ */
+@Service
+public class WordCache implements DictionaryListener {
+
+    private static final int ENTRY_BYTES = 160;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${words.cache.max-bytes:16777216}")
+    private long maxBytes = 16777216;
+
+    private Cache<Long, Word> byId;
+
+    private Cache<String, Word> byValue;
+
+    private final Map<String, Set<String>> casesByValue = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        byId = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<Long, Word>weigher((id, w) -> weight(w))
+                .recordStats()
+                .build();
+        byValue = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .<String, Word>weigher((value, w) -> weight(w) + 2 * value.length())
+                .writer(new CacheWriter<String, Word>() {
+                    @Override
+                    public void write(String value, Word w) {
+                        addCase(value);
+                    }
+
+                    @Override
+                    public void delete(String value, Word w, RemovalCause cause) {
+                        removeCase(value);
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byId, "words.id");
+        CaffeineCacheMetrics.monitor(meterRegistry, byValue, "words.value");
+        Gauge.builder("words.cache.bytes", byId, WordCache::weightedSize)
+                .tag("cache", "words.id")
+                .description("Estimated heap taken by the cached words")
+                .register(meterRegistry);
+        Gauge.builder("words.cache.bytes", byValue, WordCache::weightedSize)
+                .tag("cache", "words.value")
+                .description("Estimated heap taken by the cached words")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the cached word of an id, loading it on a miss.
+     *
+     * @param id the word id
+     * @param loader the lookup, returning null if there is no such word
+     * @return the word, null if there is no such word
+     */
+    public Word getById(long id, Supplier<Word> loader) {
+
+        return byId.get(id, k -> copy(loader.get()));
+    }
+
+    /**
+     * Get the cached word of a value, loading it on a miss.
+     *
+     * @param value the word value
+     * @param loader the lookup, returning null if there is no such word
+     * @return the word, null if there is no such word
+     */
+    public Word getByValue(String value, Supplier<Word> loader) {
+
+        return byValue.get(value, k -> {
+            Word word = copy(loader.get());
+            // the writer is not told of loads
+            if (word != null)
+                addCase(k);
+
+            return word;
+        });
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        invalidate(words);
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+        invalidate(words);
+    }
+
+    @Override
+    public void cleared() {
+        byId.invalidateAll();
+        byValue.invalidateAll();
+    }
+
+    /**
+     * Drop the entries of the changed words. The entries of the id and the exact value are
+     * invalidated one by one, which waits for a lookup of the same key still in flight, and
+     * the other cases of the value are found by its lower case.
+     *
+     * @param words the changed words
+     */
+    private void invalidate(Collection<Word> words) {
+        if (byId.estimatedSize() == 0 && byValue.estimatedSize() == 0)
+            return;
+
+        for (Word w : words) {
+            byId.invalidate(w.getId());
+            if (w.getValue() != null) {
+                byValue.invalidate(w.getValue());
+                Set<String> cases = casesByValue.get(w.getValue().toLowerCase(Locale.ROOT));
+                if (cases != null)
+                    byValue.invalidateAll(new ArrayList<>(cases));
+            }
+        }
+    }
+
+    private void addCase(String value) {
+        casesByValue.compute(value.toLowerCase(Locale.ROOT), (k, cases) -> {
+            Set<String> output = cases == null ? ConcurrentHashMap.newKeySet() : cases;
+            output.add(value);
+
+            return output;
+        });
+    }
+
+    private void removeCase(String value) {
+        casesByValue.computeIfPresent(value.toLowerCase(Locale.ROOT), (k, cases) -> {
+            cases.remove(value);
+
+            return cases.isEmpty() ? null : cases;
+        });
+    }
+
+    private static int weight(Word w) {
+        int length = w.getValue() == null ? 0 : w.getValue().length();
+        int signature = w.getSignature() == null ? 0 : w.getSignature().length();
+
+        return ENTRY_BYTES + 2 * (length + signature);
+    }
+
+    private static double weightedSize(Cache<?, ?> cache) {
+        return cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static Word copy(Word word) {
+        if (word == null)
+            return null;
+
+        Word w = new Word();
+        w.setId(word.getId());
+        w.setValue(word.getValue());
+        w.setSignature(word.getSignature());
+
+        return w;
+    }
+}
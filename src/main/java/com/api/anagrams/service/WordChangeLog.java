@@ -0,0 +1,160 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import com.api.anagrams.model.WordChange;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The change log of the words table, shared by every instance.
+ *
+ * Changes are appended with the JDBC connection of the current transaction, so they
+ * commit or roll back together with the mutation they describe. Each row is tagged
+ * with the id of the instance that wrote it, which already applied it locally.
+ *
+ * The last sequence number read from the log is also kept in memory, refreshed by the
+ * tailer every {@code anagrams.sync.interval-millis}, so the checks made on every query
+ * need not read the log: they miss the changes other instances made since the last poll.
+ */
+@Service
+public class WordChangeLog {
+
+    private static final String INSERT = "INSERT INTO word_changes (instance_id, type, word_id, value) VALUES (?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final AtomicLong lastSeenSeq = new AtomicLong();
+
+    private final AtomicLong appendCount = new AtomicLong();
+
+    /**
+     * Gets the id of this instance.
+     *
+     * @return the instance id
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Append the insertion of words.
+     *
+     * @param words the list of words
+     */
+    public void added(Collection<Word> words) {
+        append(WordChange.Type.ADDED, words);
+    }
+
+    /**
+     * Append the deletion of words.
+     *
+     * @param words the list of words
+     */
+    public void removed(Collection<Word> words) {
+        append(WordChange.Type.REMOVED, words);
+    }
+
+    /**
+     * Append the deletion of every word.
+     */
+    public void cleared() {
+        appendCount.incrementAndGet();
+        jdbcTemplate.update(INSERT, instanceId, WordChange.Type.CLEARED.name(), 0, null);
+    }
+
+    /**
+     * Get the sequence number of the last change.
+     *
+     * @return the seq, 0 if the log is empty
+     */
+    public long getLastSeq() {
+        long seq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM word_changes", Long.class);
+
+        return lastSeenSeq.accumulateAndGet(seq, Math::max);
+    }
+
+    /**
+     * Gets the sequence number of the last change as of the last read of the log, at most
+     * one poll interval old, without reading it.
+     *
+     * @return the seq, 0 if the log was never read
+     */
+    public long getLastSeenSeq() {
+        return lastSeenSeq.get();
+    }
+
+    /**
+     * Gets the number of appends made by this instance, committed or not.
+     *
+     * @return the count
+     */
+    public long getAppendCount() {
+        return appendCount.get();
+    }
+
+    /**
+     * Get the sequence numbers of the changes in a range.
+     *
+     * @param after the sequence number before the range
+     * @param upTo the last sequence number of the range
+     * @return the list
+     */
+    public List<Long> getSeqs(long after, long upTo) {
+
+        return jdbcTemplate.queryForList("SELECT seq FROM word_changes WHERE seq > ? AND seq <= ?", Long.class, after, upTo);
+    }
+
+    /**
+     * Get the changes following a sequence number, in order.
+     *
+     * @param seq the sequence number
+     * @param limit the maximum number of changes
+     * @return the list
+     */
+    public List<WordChange> readAfter(long seq, int limit) {
+
+        return jdbcTemplate.query(
+                "SELECT seq, instance_id, type, word_id, value FROM word_changes WHERE seq > ? ORDER BY seq LIMIT ?",
+                (rs, rowNum) -> {
+                    WordChange c = new WordChange();
+                    c.setSeq(rs.getLong("seq"));
+                    c.setInstanceId(rs.getString("instance_id"));
+                    c.setType(WordChange.Type.valueOf(rs.getString("type")));
+                    c.setWordId(rs.getLong("word_id"));
+                    c.setValue(rs.getString("value"));
+                    return c;
+                }, seq, limit);
+    }
+
+    /**
+     * Delete the changes up to a sequence number.
+     *
+     * @param seq the sequence number
+     * @return the number of changes deleted
+     */
+    public int prune(long seq) {
+
+        return jdbcTemplate.update("DELETE FROM word_changes WHERE seq <= ?", seq);
+    }
+
+    private void append(WordChange.Type type, Collection<Word> words) {
+        if (words.isEmpty())
+            return;
+
+        appendCount.incrementAndGet();
+        List<Object[]> rows = new ArrayList<>();
+        for (Word w : words)
+            rows.add(new Object[]{instanceId, type.name(), w.getId(), w.getValue()});
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+}
@@ -0,0 +1,109 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.WordChange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps this instance in step with the changes other instances make to the words table.
+ *
+ * Every {@code anagrams.sync.interval-millis} the change log is read from the position
+ * of the listeners, in batches of {@code anagrams.sync.batch-size}, and applied in order.
+ * An instance more than {@code anagrams.sync.max-lag} changes behind, besides the
+ * {@code anagrams.sync.replay} changes read again after every rebuild, rebuilds from the
+ * table instead. A sequence number may commit after a later one, so the changes are only
+ * applied up to the first gap, unless the gap outlives {@code anagrams.sync.gap-timeout-millis}
+ * and is taken for a rolled back transaction. Changes older than the last
+ * {@code anagrams.sync.retention} are pruned from the log. The last change is read every
+ * poll, warm or not, which keeps the one the change log holds in memory fresh.
+ */
+@Component
+public class WordChangeTailer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordChangeTailer.class);
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private WordChangeLog changeLog;
+
+    @Value("${anagrams.sync.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${anagrams.sync.max-lag:10000}")
+    private long maxLag;
+
+    @Value("${anagrams.sync.replay:100}")
+    private long replay;
+
+    @Value("${anagrams.sync.gap-timeout-millis:10000}")
+    private long gapTimeoutMillis;
+
+    @Value("${anagrams.sync.retention:100000}")
+    private long retention;
+
+    private long gapSince;
+
+    /**
+     * Apply the changes made by other instances since the last poll.
+     */
+    @Scheduled(fixedDelayString = "${anagrams.sync.interval-millis:1000}")
+    public synchronized void poll() {
+        try {
+            long last = changeLog.getLastSeq();
+            if (!dictionaryService.isReady())
+                return;
+
+            long position = dictionaryService.getPosition();
+
+            if (last - position > maxLag + replay) {
+                LOG.info("{} changes behind the word change log, rebuilding from the table", last - position);
+                dictionaryService.rebuild();
+            } else {
+                while (position < last) {
+                    List<WordChange> changes = contiguous(position, changeLog.readAfter(position, batchSize));
+                    if (changes.isEmpty() || !dictionaryService.apply(position, changes))
+                        break;
+                    position = dictionaryService.getPosition();
+                }
+            }
+
+            if (last > retention)
+                changeLog.prune(last - retention);
+        } catch (DataAccessException e) {
+            LOG.warn("Cannot read the word change log", e);
+        }
+    }
+
+    /**
+     * Get the changes up to the first gap in the sequence numbers, or all of them once
+     * the gap has been open for longer than the timeout.
+     */
+    private List<WordChange> contiguous(long position, List<WordChange> changes) {
+        int n = 0;
+        while (n < changes.size() && changes.get(n).getSeq() == position + n + 1)
+            n++;
+        if (n == changes.size() || n > 0) {
+            gapSince = 0;
+            return changes.subList(0, n);
+        }
+
+        long now = System.currentTimeMillis();
+        if (gapSince == 0)
+            gapSince = now;
+        if (now - gapSince < gapTimeoutMillis)
+            return changes.subList(0, 0);
+
+        LOG.warn("Skipping changes {} to {} of the word change log", position + 1, changes.get(0).getSeq() - 1);
+        gapSince = 0;
+        return changes;
+    }
+}
@@ -0,0 +1,200 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import com.api.anagrams.repository.WordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The membership filter of the words table: a Bloom filter over the lower-cased values.
+ *
+ * A value the filter does not contain is certainly not in the table, so a lookup of a
+ * missing word is answered without a query; a value it contains is in the table except
+ * with probability {@code words.filter.fpp}. The filter is sized for twice the words in
+ * the table, and at least {@code words.filter.expected-insertions}, at startup and again
+ * once the warm-up has loaded the table. Words inserted by other instances only reach the
+ * filter through the change log, so a lookup only trusts a negative answer while this
+ * instance has applied the whole log. Bits are only ever set,
+ * so deleted words, cleared tables and growth beyond the size only add false positives,
+ * until the filter is rebuilt every {@code words.filter.rebuild-millis}. A rebuild fills a
+ * new filter from the table while inserts go to both, then swaps it in, so lookups never
+ * see a partly loaded filter. Setting {@code words.filter.enabled=false} sends every
+ * lookup to the table.
+ */
+@Service
+public class WordFilter implements DictionaryListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordFilter.class);
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${words.filter.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${words.filter.expected-insertions:1000000}")
+    private long expectedInsertions = 1000000;
+
+    @Value("${words.filter.fpp:0.01}")
+    private double fpp = 0.01;
+
+    private volatile Bits current;
+
+    private volatile Bits next;
+
+    @PostConstruct
+    public void init() {
+        current = new Bits(capacity(), fpp);
+    }
+
+    /**
+     * Is the filter enabled.
+     *
+     * @return true if lookups of missing words are answered from memory
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Might the words table hold a value.
+     *
+     * @param value the word value
+     * @return false only if the value is certainly not in the table
+     */
+    public boolean mightContain(String value) {
+        return !enabled || current.mightContain(value.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Rebuild the filter from the words table, dropping the deleted words and resizing it.
+     */
+    @Scheduled(fixedDelayString = "${words.filter.rebuild-millis:3600000}",
+            initialDelayString = "${words.filter.rebuild-millis:3600000}")
+    public void rebuild() {
+        if (!enabled)
+            return;
+
+        long started = System.currentTimeMillis();
+        Bits rebuilt = new Bits(capacity(), fpp);
+        next = rebuilt;
+        try {
+            jdbcTemplate.query("SELECT value FROM words", rs -> {
+                String value = rs.getString(1);
+                if (value != null)
+                    rebuilt.add(value.toLowerCase(Locale.ROOT));
+            });
+            current = rebuilt;
+        } finally {
+            next = null;
+        }
+        LOG.info("Rebuilt the word filter of {} bits in {} ms", rebuilt.size(), System.currentTimeMillis() - started);
+    }
+
+    private long capacity() {
+        return Math.max(expectedInsertions, 2 * wordRepository.count());
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        Bits next = this.next;
+        Bits current = this.current;
+        for (Word w : words) {
+            if (w.getValue() == null)
+                continue;
+            String value = w.getValue().toLowerCase(Locale.ROOT);
+            current.add(value);
+            if (next != null)
+                next.add(value);
+        }
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+    }
+
+    @Override
+    public void cleared() {
+    }
+
+    /**
+     * The bit array of a Bloom filter, set without locks. The probes of a value are
+     * derived from two halves of one 64-bit hash.
+     */
+    private static class Bits {
+
+        private final AtomicLongArray words;
+
+        private final long size;
+
+        private final int hashes;
+
+        private Bits(long insertions, double fpp) {
+            long n = Math.max(1, insertions);
+            long bits = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) / 64));
+            this.size = 64L * words.length();
+            this.hashes = Math.max(1, (int) Math.round((double) size / n * Math.log(2)));
+        }
+
+        private long size() {
+            return size;
+        }
+
+        private void add(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                while (((old = words.get(word)) & mask) == 0 && !words.compareAndSet(word, old, old | mask))
+                    ;
+            }
+        }
+
+        private boolean mightContain(String value) {
+            long hash = hash(value);
+            for (int i = 0; i < hashes; i++) {
+                long bit = index(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0)
+                    return false;
+            }
+
+            return true;
+        }
+
+        private long index(long hash, int i) {
+            long combined = (int) hash + (long) i * (int) (hash >>> 32);
+
+            return (combined < 0 ? ~combined : combined) % size;
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++)
+                h = (h ^ value.charAt(i)) * 0x100000001b3L;
+
+            h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+            h = (h ^ (h >>> 33)) * 0xc4ceb93fe1a85ec3L;
+
+            return h ^ (h >>> 33);
+        }
+    }
+}
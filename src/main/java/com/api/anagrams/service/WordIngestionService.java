@@ -0,0 +1,161 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.AnagramImpl;
+import com.api.anagrams.metrics.AnagramMetrics;
+import com.api.anagrams.model.IngestionSummary;
+import com.api.anagrams.model.Word;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk ingestion of words.
+ *
+ * Words are read from the source a chunk at a time, and every chunk is written with
+ * one JDBC batch in its own transaction. Words already in the table are skipped; if
+ * a concurrent writer wins the race on the unique constraint, the chunk is retried
+ * row by row so only the duplicates are skipped. The inserted words are appended to the
+ * change log in the same transaction.
+ */
+@Service
+public class WordIngestionService {
+
+    private static final String INSERT = "INSERT INTO words (value, signature) VALUES (?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private WordChangeLog changeLog;
+
+    @Autowired
+    private AnagramMetrics anagramMetrics;
+
+    @Value("${words.ingest.batch-size:1000}")
+    private int batchSize;
+
+    /**
+     * Insert words, trimmed of surrounding whitespace, skipping empty words and words
+     * already present.
+     *
+     * @param source the name of the source, for the ingestion metrics
+     * @param values the word values, consumed once
+     * @return the summary
+     */
+    public IngestionSummary ingest(String source, Iterator<String> values) {
+        long start = System.nanoTime();
+        long inserted = 0, skipped = 0;
+        Set<String> chunk = new LinkedHashSet<>();
+
+        while (values.hasNext()) {
+            String value = values.next();
+            if (value != null)
+                value = value.trim();
+            if (value == null || value.isEmpty() || !chunk.add(value))
+                skipped++;
+            if (chunk.size() == batchSize || (!values.hasNext() && !chunk.isEmpty())) {
+                List<Word> words = dictionaryService.mutate(() -> {
+                    List<Word> added = insertChunk(chunk);
+                    dictionaryService.wordsAdded(added);
+                    return added;
+                });
+                inserted += words.size();
+                skipped += chunk.size() - words.size();
+                chunk.clear();
+            }
+        }
+
+        long elapsedMillis = (System.nanoTime() - start) / 1000000;
+        anagramMetrics.ingested(source, inserted, skipped, elapsedMillis);
+
+        return new IngestionSummary(inserted, skipped, elapsedMillis);
+    }
+
+    private List<Word> insertChunk(Set<String> chunk) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            return transaction.execute(status -> logged(load(insertBatch(chunk))));
+        } catch (DuplicateKeyException e) {
+            return transaction.execute(status -> logged(load(insertEachRow(chunk))));
+        }
+    }
+
+    private List<Word> logged(List<Word> words) {
+        changeLog.added(words);
+
+        return words;
+    }
+
+    private List<String> insertBatch(Set<String> chunk) {
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT value FROM words WHERE value IN (:values)",
+                new MapSqlParameterSource("values", chunk), String.class));
+        List<String> values = new ArrayList<>();
+        List<Object[]> rows = new ArrayList<>();
+
+        for (String value : chunk) {
+            if (!existing.contains(value)) {
+                values.add(value);
+                rows.add(new Object[]{value, AnagramImpl.signature(value)});
+            }
+        }
+        if (!rows.isEmpty())
+            jdbcTemplate.batchUpdate(INSERT, rows);
+
+        return values;
+    }
+
+    private List<String> insertEachRow(Set<String> chunk) {
+        List<String> values = new ArrayList<>();
+
+        for (String value : chunk) {
+            try {
+                jdbcTemplate.update(INSERT, value, AnagramImpl.signature(value));
+                values.add(value);
+            } catch (DuplicateKeyException e) {
+                // already stored by another writer
+            }
+        }
+
+        return values;
+    }
+
+    private List<Word> load(List<String> values) {
+        if (values.isEmpty())
+            return new ArrayList<>();
+
+        return namedParameterJdbcTemplate.query(
+                "SELECT id, value, signature FROM words WHERE value IN (:values)",
+                new MapSqlParameterSource("values", values),
+                (rs, rowNum) -> {
+                    Word w = new Word();
+                    w.setId(rs.getLong("id"));
+                    w.setValue(rs.getString("value"));
+                    w.setSignature(rs.getString("signature"));
+                    return w;
+                });
+    }
+}
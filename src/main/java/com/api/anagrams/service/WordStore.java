@@ -0,0 +1,778 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.anagram.AnagramImpl;
+import com.api.anagrams.model.Word;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The read-optimized in-heap copy of the words table.
+ *
+ * Each word is a slot: its id, and the start of its value in a single byte arena of UTF-8
+ * text, so the whole dictionary is a handful of arrays instead of an entity, a few strings
+ * and a boxed id per word. Signatures are not held, they are derived from the values. The
+ * slots are numbered in id order, so the ids form a sorted array that is binary searched
+ * and paged, held as unsigned 32-bit offsets from the smallest id unless they span more
+ * than that, and two int arrays list the slots in value order (by code point), for the
+ * smallest, largest and median words, and in fingerprint order, for anagram lookups.
+ * Deleted slots are only marked, in a bitset by slot and one by value order. Inserted
+ * words go to a tail buffer whose three orders are kept sorted as it fills, and which is
+ * merged into the arrays once it holds {@value #TAIL_SIZE} words, or the arrays hold more
+ * deleted slots than live ones; every merge sizes the arrays exactly. The total length
+ * and the length histogram are kept alongside. Words are keyed by id, so a word delivered
+ * twice is only counted once. Word objects are only created for the words actually
+ * returned. Setting {@code words.store.enabled=false} leaves the store empty so these
+ * reads go to the words table instead.
+ */
+@Service
+public class WordStore implements DictionaryListener {
+
+    private static final int NIL = -1;
+
+    private static final int TAIL_SIZE = 4096;
+
+    private static final int TAIL_CAPACITY = 16;
+
+    @Value("${words.store.enabled:true}")
+    private boolean enabled = true;
+
+    private byte[] arena = new byte[0];
+
+    private int[] starts = {0};
+
+    private long idBase;
+
+    private int[] idOffsets = new int[0];
+
+    private long[] wideIds;
+
+    private int[] byValue = new int[0];
+
+    private int[] byFingerprint = new int[0];
+
+    private long[] deleted = new long[0];
+
+    private long[] deletedByValue = new long[0];
+
+    private int size;
+
+    private int live;
+
+    private byte[] tailArena = new byte[TAIL_CAPACITY * 16];
+
+    private int[] tailStarts = new int[TAIL_CAPACITY + 1];
+
+    private long[] tailIds = new long[TAIL_CAPACITY];
+
+    private int[] tailById = new int[TAIL_CAPACITY];
+
+    private int[] tailByValue = new int[TAIL_CAPACITY];
+
+    private int[] tailByFingerprint = new int[TAIL_CAPACITY];
+
+    private int tailSize;
+
+    private int tailLive;
+
+    private final SlotComparator idOrder = (a, b) -> Long.compare(id(a), id(b));
+
+    private final SlotComparator valueOrder = this::compareValues;
+
+    private final SlotComparator fingerprintOrder = this::compareFingerprints;
+
+    private final SortedMap<Integer, Long> lengths = new TreeMap<>();
+
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Is the store enabled.
+     *
+     * @return true if the words are held in memory
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Get the number of words.
+     *
+     * @return the count
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return live + tailLive;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get a page of words ordered by id.
+     *
+     * @param afterId the id after which the page starts
+     * @param limit the page size
+     * @return the list
+     */
+    public List<Word> page(long afterId, int limit) {
+        List<Word> words = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            int i = upperBound(afterId);
+            int j = tailUpperBound(afterId);
+            while (words.size() < limit) {
+                while (i < size && isDeleted(i))
+                    i++;
+                if (i < size && (j == tailLive || id(i) < id(tailById[j])))
+                    words.add(word(i++));
+                else if (j < tailLive)
+                    words.add(word(tailById[j++]));
+                else
+                    break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return words;
+    }
+
+    /**
+     * Get the word of a rank in value order.
+     *
+     * @param rank the rank, from 0 for the smallest word
+     * @return the word, null if rank is out of range
+     */
+    public Word getByValueRank(int rank) {
+        lock.readLock().lock();
+        try {
+            if (rank < 0 || rank >= live + tailLive)
+                return null;
+
+            // the number of tail words before the word of the rank
+            int lo = 0;
+            int hi = tailLive;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (liveBefore(tailByValue[mid]) + mid < rank)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+            if (lo < tailLive && liveBefore(tailByValue[lo]) + lo == rank)
+                return word(tailByValue[lo]);
+
+            return word(byValue[selectLive(rank - lo)]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the anagrams of a word, in id order.
+     *
+     * @param value the word value
+     * @param limit the maximum number of anagrams to return
+     * @return the list
+     */
+    public List<String> getAnagrams(String value, int limit) {
+        List<String> anagrams = new ArrayList<>();
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        if (limit < 1 || utf8.length == 0)
+            return anagrams;
+        long fingerprint = AnagramImpl.fingerprint(utf8, 0, utf8.length);
+
+        lock.readLock().lock();
+        try {
+            int i = nextAnagram(byFingerprint, lowerBound(byFingerprint, size, fingerprint), size, fingerprint, value);
+            int j = nextAnagram(tailByFingerprint, lowerBound(tailByFingerprint, tailLive, fingerprint), tailLive,
+                    fingerprint, value);
+            while (anagrams.size() < limit && (i < size || j < tailLive)) {
+                if (j == tailLive || i < size && id(byFingerprint[i]) < id(tailByFingerprint[j])) {
+                    anagrams.add(value(byFingerprint[i]));
+                    i = nextAnagram(byFingerprint, i + 1, size, fingerprint, value);
+                } else {
+                    anagrams.add(value(tailByFingerprint[j]));
+                    j = nextAnagram(tailByFingerprint, j + 1, tailLive, fingerprint, value);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return anagrams;
+    }
+
+    /**
+     * Get the total length of the words, in chars.
+     *
+     * @return the total length
+     */
+    public long getTotalLength() {
+        lock.readLock().lock();
+        try {
+            return totalLength;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Get the length histogram: the number of words per length in chars.
+     *
+     * @return the sorted map
+     */
+    public SortedMap<Integer, Long> getLengthHistogram() {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(lengths);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void wordsAdded(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            int first = tailLive;
+            int firstSlot = size + tailSize;
+            for (Word w : words) {
+                if (w.getValue() == null || w.getValue().isEmpty() || find(w.getId()) != NIL)
+                    continue;
+                int slot = append(w);
+                insert(tailById, tailLive++, slot, idOrder);
+            }
+
+            if (tailLive - first > 64) {
+                // a bulk load sorts the tail once rather than shifting it per word
+                System.arraycopy(tailById, 0, tailByValue, 0, tailLive);
+                System.arraycopy(tailById, 0, tailByFingerprint, 0, tailLive);
+                sort(tailByValue, tailLive, valueOrder);
+                sort(tailByFingerprint, tailLive, fingerprintOrder(tailFingerprints()));
+            } else {
+                for (int k = first; k < tailLive; k++) {
+                    insert(tailByValue, k, firstSlot + k - first, valueOrder);
+                    insert(tailByFingerprint, k, firstSlot + k - first, fingerprintOrder);
+                }
+            }
+            if (tailSize >= TAIL_SIZE)
+                merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void wordsRemoved(Collection<Word> words) {
+        if (!enabled)
+            return;
+
+        lock.writeLock().lock();
+        try {
+            for (Word w : words) {
+                int slot = find(w.getId());
+                if (slot == NIL)
+                    continue;
+                if (slot < size) {
+                    deleted[slot >>> 6] |= 1L << slot;
+                    int p = lowerBound(byValue, size, slot, valueOrder);
+                    deletedByValue[p >>> 6] |= 1L << p;
+                    live--;
+                } else {
+                    remove(tailById, tailLive, slot, idOrder);
+                    remove(tailByValue, tailLive, slot, valueOrder);
+                    remove(tailByFingerprint, tailLive, slot, fingerprintOrder);
+                    tailLive--;
+                }
+                count(w.getValue().length(), -1);
+            }
+            if (size - live > live)
+                merge();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void cleared() {
+        lock.writeLock().lock();
+        try {
+            arena = new byte[0];
+            starts = new int[]{0};
+            idBase = 0;
+            idOffsets = new int[0];
+            wideIds = null;
+            byValue = new int[0];
+            byFingerprint = new int[0];
+            deleted = new long[0];
+            deletedByValue = new long[0];
+            size = 0;
+            live = 0;
+            resetTail();
+            lengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Append a word to the tail buffer.
+     *
+     * @return its slot
+     */
+    private int append(Word w) {
+        byte[] value = w.getValue().getBytes(StandardCharsets.UTF_8);
+
+        if (tailSize == tailIds.length) {
+            int capacity = tailSize * 2;
+            tailStarts = Arrays.copyOf(tailStarts, capacity + 1);
+            tailIds = Arrays.copyOf(tailIds, capacity);
+            tailById = Arrays.copyOf(tailById, capacity);
+            tailByValue = Arrays.copyOf(tailByValue, capacity);
+            tailByFingerprint = Arrays.copyOf(tailByFingerprint, capacity);
+        }
+        int start = tailStarts[tailSize];
+        if (start + value.length > tailArena.length)
+            tailArena = Arrays.copyOf(tailArena, Math.max(tailArena.length * 2, start + value.length));
+
+        System.arraycopy(value, 0, tailArena, start, value.length);
+        tailIds[tailSize] = w.getId();
+        tailStarts[tailSize + 1] = start + value.length;
+        count(w.getValue().length(), 1);
+
+        return size + tailSize++;
+    }
+
+    private void count(int length, int delta) {
+        totalLength += length * delta;
+        if (lengths.merge(length, (long) delta, Long::sum) == 0)
+            lengths.remove(length);
+    }
+
+    /**
+     * Rewrite the arrays, exactly sized, with the live slots and the tail buffer merged
+     * in id order, and merge the tail orders into the value and fingerprint orders.
+     */
+    private void merge() {
+        int n = live + tailLive;
+        // words mostly arrive in id order, after every slot, which then keep their numbers
+        boolean kept = live == size && (size == 0 || tailLive == 0 || id(tailById[0]) > id(size - 1));
+        int[] renumbered = new int[size + tailSize];
+        long bytes = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (!isDeleted(slot))
+                bytes += length(slot);
+        }
+        for (int j = 0; j < tailLive; j++)
+            bytes += length(tailById[j]);
+
+        byte[] arena = new byte[Math.toIntExact(bytes)];
+        int[] starts = new int[n + 1];
+        long[] ids = new long[n];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        int start = 0;
+        if (kept) {
+            start = this.starts[size];
+            System.arraycopy(this.arena, 0, arena, 0, start);
+            System.arraycopy(this.starts, 0, starts, 0, size);
+            for (int slot = 0; slot < size; slot++)
+                ids[slot] = id(slot);
+            i = size;
+            k = size;
+        }
+        for (; k < n; k++) {
+            while (i < size && isDeleted(i))
+                i++;
+            int slot = i < size && (j == tailLive || id(i) < id(tailById[j])) ? i++ : tailById[j++];
+            System.arraycopy(bytes(slot), start(slot), arena, start, length(slot));
+            ids[k] = id(slot);
+            starts[k] = start;
+            start += length(slot);
+            renumbered[slot] = k;
+        }
+        starts[n] = start;
+
+        int[] byValue = merge(this.byValue, tailByValue, valueOrder, kept, renumbered, n);
+        int[] byFingerprint = merge(this.byFingerprint, tailByFingerprint, fingerprintOrder(tailFingerprints()), kept,
+                renumbered, n);
+
+        this.arena = arena;
+        this.starts = starts;
+        if (n > 0 && ids[n - 1] - ids[0] > 0xFFFFFFFFL) {
+            this.wideIds = ids;
+            this.idOffsets = null;
+        } else {
+            this.idBase = n > 0 ? ids[0] : 0;
+            this.idOffsets = new int[n];
+            for (int slot = 0; slot < n; slot++)
+                this.idOffsets[slot] = (int) (ids[slot] - idBase);
+            this.wideIds = null;
+        }
+        this.byValue = byValue;
+        this.byFingerprint = byFingerprint;
+        this.deleted = new long[(n + 63) >>> 6];
+        this.deletedByValue = new long[(n + 63) >>> 6];
+        this.size = n;
+        this.live = n;
+        resetTail();
+    }
+
+    /**
+     * Merge a tail order into an order of the slots, skipping the deleted ones, in the
+     * new numbering of the slots.
+     */
+    private int[] merge(int[] order, int[] tailOrder, SlotComparator comparator, boolean kept, int[] renumbered, int n) {
+        int[] merged = new int[n];
+        int k = 0;
+        int p = 0;
+
+        for (int j = 0; j <= tailLive; j++) {
+            int q = j < tailLive ? gallop(order, p, size, tailOrder[j], comparator) : size;
+            if (kept) {
+                System.arraycopy(order, p, merged, k, q - p);
+                k += q - p;
+            } else {
+                for (int t = p; t < q; t++) {
+                    if (!isDeleted(order[t]))
+                        merged[k++] = renumbered[order[t]];
+                }
+            }
+            p = q;
+            if (j < tailLive)
+                merged[k++] = renumbered[tailOrder[j]];
+        }
+
+        return merged;
+    }
+
+    private void resetTail() {
+        tailArena = new byte[TAIL_CAPACITY * 16];
+        tailStarts = new int[TAIL_CAPACITY + 1];
+        tailIds = new long[TAIL_CAPACITY];
+        tailById = new int[TAIL_CAPACITY];
+        tailByValue = new int[TAIL_CAPACITY];
+        tailByFingerprint = new int[TAIL_CAPACITY];
+        tailSize = 0;
+        tailLive = 0;
+    }
+
+    private Word word(int slot) {
+        Word w = new Word();
+        w.setId(id(slot));
+        w.setValue(value(slot));
+        w.computeSignature();
+
+        return w;
+    }
+
+    private String value(int slot) {
+        return new String(bytes(slot), start(slot), length(slot), StandardCharsets.UTF_8);
+    }
+
+    private long id(int slot) {
+        if (slot >= size)
+            return tailIds[slot - size];
+
+        return wideIds != null ? wideIds[slot] : idBase + (idOffsets[slot] & 0xFFFFFFFFL);
+    }
+
+    private byte[] bytes(int slot) {
+        return slot < size ? arena : tailArena;
+    }
+
+    private int start(int slot) {
+        return slot < size ? starts[slot] : tailStarts[slot - size];
+    }
+
+    private int length(int slot) {
+        return slot < size ? starts[slot + 1] - starts[slot] : tailStarts[slot - size + 1] - tailStarts[slot - size];
+    }
+
+    private long fingerprint(int slot) {
+        return AnagramImpl.fingerprint(bytes(slot), start(slot), length(slot));
+    }
+
+    private boolean isDeleted(int slot) {
+        return slot < size && (deleted[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    /**
+     * Find the live slot of an id.
+     *
+     * @return the slot, NIL if there is none
+     */
+    private int find(long id) {
+        int slot = upperBound(id - 1);
+        if (slot < size && id(slot) == id && !isDeleted(slot))
+            return slot;
+
+        int j = tailUpperBound(id - 1);
+
+        return j < tailLive && id(tailById[j]) == id ? tailById[j] : NIL;
+    }
+
+    /**
+     * Get the first slot with an id after an id.
+     */
+    private int upperBound(long id) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (id(mid) <= id)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        return lo;
+    }
+
+    /**
+     * Get the first position of the tail id order with an id after an id.
+     */
+    private int tailUpperBound(long id) {
+        int lo = 0;
+        int hi = tailLive;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (id(tailById[mid]) <= id)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        return lo;
+    }
+
+    /**
+     * Get the first position of a fingerprint order with a fingerprint no smaller than a fingerprint.
+     */
+    private int lowerBound(int[] order, int count, long fingerprint) {
+        int lo = 0;
+        int hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (fingerprint(order[mid]) < fingerprint)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        return lo;
+    }
+
+    /**
+     * Get the first position of an order that does not come before a slot.
+     */
+    private int lowerBound(int[] order, int count, int slot, SlotComparator comparator) {
+        return lowerBound(order, 0, count, slot, comparator);
+    }
+
+    private int lowerBound(int[] order, int from, int to, int slot, SlotComparator comparator) {
+        int lo = from;
+        int hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(order[mid], slot) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        return lo;
+    }
+
+    /**
+     * Get the first position of an order from a position that does not come before a slot,
+     * probing at doubling distances from it first, as the tail slots merged one after the
+     * other land close to each other.
+     */
+    private int gallop(int[] order, int from, int to, int slot, SlotComparator comparator) {
+        int lo = from;
+        int bound = 1;
+        while (from + bound - 1 < to && comparator.compare(order[from + bound - 1], slot) < 0) {
+            lo = from + bound;
+            bound <<= 1;
+        }
+
+        return lowerBound(order, lo, Math.min(from + bound - 1, to), slot, comparator);
+    }
+
+    /**
+     * Get the position of the next live anagram of a word in a fingerprint order.
+     *
+     * @return the position, count if there is none
+     */
+    private int nextAnagram(int[] order, int p, int count, long fingerprint, String value) {
+        for (; p < count && fingerprint(order[p]) == fingerprint; p++) {
+            if (!isDeleted(order[p]) && AnagramImpl.Anagram(value, value(order[p])) != null)
+                return p;
+        }
+
+        return count;
+    }
+
+    /**
+     * Get the number of live slots before a tail slot in value order.
+     */
+    private int liveBefore(int slot) {
+        int p = lowerBound(byValue, size, slot, valueOrder);
+        int dead = 0;
+        for (int w = 0; w < p >>> 6; w++)
+            dead += Long.bitCount(deletedByValue[w]);
+        if ((p & 63) != 0)
+            dead += Long.bitCount(deletedByValue[p >>> 6] & (1L << p) - 1);
+
+        return p - dead;
+    }
+
+    /**
+     * Get the position in value order of the live slot of a rank.
+     */
+    private int selectLive(int rank) {
+        for (int w = 0; ; w++) {
+            int free = Math.min(64, size - (w << 6)) - Long.bitCount(deletedByValue[w]);
+            if (rank < free) {
+                long bits = ~deletedByValue[w];
+                for (; rank > 0; rank--)
+                    bits &= bits - 1;
+                return (w << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            rank -= free;
+        }
+    }
+
+    /**
+     * Compare slots by value, then by id.
+     */
+    private int compareValues(int a, int b) {
+        byte[] x = bytes(a);
+        byte[] y = bytes(b);
+        int i = start(a);
+        int j = start(b);
+        int lengthA = length(a);
+        int lengthB = length(b);
+
+        for (int k = 0, n = Math.min(lengthA, lengthB); k < n; k++) {
+            int c = (x[i + k] & 0xFF) - (y[j + k] & 0xFF);
+            if (c != 0)
+                return c;
+        }
+
+        return lengthA != lengthB ? lengthA - lengthB : Long.compare(id(a), id(b));
+    }
+
+    /**
+     * Compare slots by fingerprint, then by id.
+     */
+    private int compareFingerprints(int a, int b) {
+        int c = Long.compare(fingerprint(a), fingerprint(b));
+
+        return c != 0 ? c : Long.compare(id(a), id(b));
+    }
+
+    /**
+     * Get the fingerprints of the live tail slots, by slot from the first tail slot.
+     */
+    private long[] tailFingerprints() {
+        long[] fingerprints = new long[tailSize];
+        for (int j = 0; j < tailLive; j++)
+            fingerprints[tailById[j] - size] = fingerprint(tailById[j]);
+
+        return fingerprints;
+    }
+
+    /**
+     * Get the fingerprint order, taking the fingerprints of the tail slots from an array
+     * rather than computing them on every comparison.
+     */
+    private SlotComparator fingerprintOrder(long[] tailFingerprints) {
+        return (a, b) -> {
+            long x = a < size ? fingerprint(a) : tailFingerprints[a - size];
+            long y = b < size ? fingerprint(b) : tailFingerprints[b - size];
+            return x != y ? Long.compare(x, y) : Long.compare(id(a), id(b));
+        };
+    }
+
+    /**
+     * Insert a slot into the first count slots of an order.
+     */
+    private static void insert(int[] order, int count, int slot, SlotComparator comparator) {
+        int lo = 0;
+        int hi = count;
+        // slots mostly arrive in order, so look at the last one first
+        if (count > 0 && comparator.compare(order[count - 1], slot) < 0)
+            lo = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (comparator.compare(order[mid], slot) < 0)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        System.arraycopy(order, lo, order, lo + 1, count - lo);
+        order[lo] = slot;
+    }
+
+    /**
+     * Remove a slot from the first count slots of an order.
+     */
+    private void remove(int[] order, int count, int slot, SlotComparator comparator) {
+        int p = lowerBound(order, count, slot, comparator);
+        System.arraycopy(order, p + 1, order, p, count - p - 1);
+    }
+
+    /**
+     * Sort the first count slots of an order, with a bottom-up merge sort.
+     */
+    private static void sort(int[] order, int count, SlotComparator comparator) {
+        int[] buffer = new int[count];
+
+        for (int width = 1; width < count; width *= 2) {
+            for (int from = 0; from < count; from += 2 * width) {
+                int mid = Math.min(from + width, count);
+                int to = Math.min(from + 2 * width, count);
+                int i = from;
+                int j = mid;
+                int k = from;
+                while (i < mid && j < to)
+                    buffer[k++] = comparator.compare(order[j], order[i]) < 0 ? order[j++] : order[i++];
+                while (i < mid)
+                    buffer[k++] = order[i++];
+                while (j < to)
+                    buffer[k++] = order[j++];
+            }
+            System.arraycopy(buffer, 0, order, 0, count);
+        }
+    }
+
+    /**
+     * A comparator of slots that does not box them.
+     */
+    @FunctionalInterface
+    private interface SlotComparator {
+
+        int compare(int a, int b);
+    }
+}
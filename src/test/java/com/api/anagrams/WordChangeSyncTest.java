@@ -0,0 +1,123 @@
+package com.api.anagrams;
+
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.service.DictionaryService;
+import com.api.anagrams.service.DictionaryStats;
+import com.api.anagrams.service.WordChangeLog;
+import com.api.anagrams.service.WordIngestionService;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Two instances sharing the test database, kept in step through the word change log.
+ */
+public class WordChangeSyncTest {
+
+    private ConfigurableApplicationContext first;
+
+    private ConfigurableApplicationContext second;
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(Application.class)
+                .profiles("test")
+                .run("--server.port=0", "--spring.jmx.enabled=false",
+                        "--anagrams.sync.interval-millis=50", "--anagrams.sync.max-lag=5", "--anagrams.sync.replay=2");
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline)
+            Thread.sleep(50);
+
+        Assert.assertTrue(condition.getAsBoolean());
+    }
+
+    private static List<String> sorted(List<String> values) {
+        List<String> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    @Before
+    public void startInstances() {
+        first = start();
+        second = start();
+        first.getBean(DictionaryService.class).clear(false);
+        first.getBean(DictionaryService.class).rebuild();
+        second.getBean(DictionaryService.class).rebuild();
+    }
+
+    @After
+    public void stopInstances() {
+        if (first != null) {
+            first.getBean(JdbcTemplate.class).execute("DROP TABLE words");
+            first.close();
+        }
+        if (second != null)
+            second.close();
+    }
+
+    @Test
+    public void testChangesReachTheOtherInstance() throws InterruptedException {
+        AnagramIndex index = second.getBean(AnagramIndex.class);
+        DictionaryStats stats = second.getBean(DictionaryStats.class);
+
+        first.getBean(WordIngestionService.class).ingest("test", Arrays.asList("stop", "pots", "tops").iterator());
+        await(() -> index.getAnagrams("spot", 10).size() == 3);
+
+        Assert.assertEquals(Arrays.asList("pots", "stop", "tops"), sorted(index.getAnagrams("spot", 10)));
+        Assert.assertEquals(3, stats.getCount());
+
+        first.getBean(DictionaryService.class).deleteWord("pots");
+        await(() -> index.getAnagrams("spot", 10).size() == 2);
+
+        Assert.assertEquals(Arrays.asList("stop", "tops"), sorted(index.getAnagrams("spot", 10)));
+        Assert.assertEquals(2, stats.getCount());
+    }
+
+    @Test
+    public void testFarBehindInstanceResyncs() throws InterruptedException {
+        AnagramIndex index = second.getBean(AnagramIndex.class);
+        List<String> values = Arrays.asList("least", "slate", "stale", "steal", "tales", "teals", "tesla", "stela");
+
+        first.getBean(WordIngestionService.class).ingest("test", values.iterator());
+        await(() -> index.getAnagrams("setal", 10).size() == values.size());
+
+        Assert.assertEquals(sorted(values), sorted(index.getAnagrams("setal", 10)));
+        long lastSeq = first.getBean(WordChangeLog.class).getLastSeq();
+        await(() -> second.getBean(DictionaryService.class).getPosition() == lastSeq);
+    }
+
+    @Test
+    public void testLateChangeIsAppliedAfterRebuild() throws InterruptedException {
+        AnagramIndex index = second.getBean(AnagramIndex.class);
+        JdbcTemplate jdbcTemplate = second.getBean(JdbcTemplate.class);
+        String insert = "INSERT INTO word_changes (instance_id, type, word_id, value) VALUES ('other', 'ADDED', ?, ?)";
+
+        jdbcTemplate.update(insert, 1001, "stop");
+        long late = second.getBean(WordChangeLog.class).getLastSeq();
+        jdbcTemplate.update("DELETE FROM word_changes WHERE seq = ?", late);
+        jdbcTemplate.update("INSERT INTO words (id, value, signature) VALUES (1000, 'pots', 'opst')");
+        jdbcTemplate.update(insert, 1000, "pots");
+
+        second.getBean(DictionaryService.class).rebuild();
+        Assert.assertEquals(Collections.singletonList("pots"), index.getAnagrams("spot", 10));
+
+        jdbcTemplate.update("INSERT INTO words (id, value, signature) VALUES (1001, 'stop', 'opst')");
+        jdbcTemplate.update("INSERT INTO word_changes (seq, instance_id, type, word_id, value) VALUES (?, 'other', 'ADDED', 1001, 'stop')", late);
+        await(() -> index.getAnagrams("spot", 10).size() == 2);
+
+        Assert.assertEquals(Arrays.asList("pots", "stop"), sorted(index.getAnagrams("spot", 10)));
+    }
+}
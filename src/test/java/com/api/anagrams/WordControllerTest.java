@@ -1,23 +1,49 @@
 package com.api.anagrams;
 
+import com.api.anagrams.anagram.AnagramIndex;
+import com.api.anagrams.anagram.DictionarySnapshot;
+import com.api.anagrams.model.AnagramClass;
 import com.api.anagrams.model.Word;
+import com.api.anagrams.repository.WordRepository;
+import com.api.anagrams.service.DictionaryListener;
+import com.api.anagrams.service.DictionaryService;
+import com.api.anagrams.service.DictionarySnapshotService;
+import com.api.anagrams.service.DictionaryWarmup;
+import com.api.anagrams.service.HeavyOperationExecutor;
+import com.api.anagrams.service.SignatureBackfill;
+import com.api.anagrams.service.WordChangeLog;
+import com.api.anagrams.service.WordChangeTailer;
+import com.api.anagrams.service.WordFilter;
 import org.junit.*;
 import org.junit.runner.RunWith;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.context.jdbc.SqlGroup;
 import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.context.request.async.DeferredResult;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 @RunWith(SpringRunner.class)
 @SpringBootTest(classes = Application.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -33,6 +59,39 @@ public class WordControllerTest {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @Autowired
+    private DictionaryService dictionaryService;
+
+    @Autowired
+    private AnagramIndex anagramIndex;
+
+    @Autowired
+    private WordRepository wordRepository;
+
+    @Autowired
+    private SignatureBackfill signatureBackfill;
+
+    @Autowired
+    private DictionarySnapshotService dictionarySnapshotService;
+
+    @Autowired
+    private DictionaryWarmup dictionaryWarmup;
+
+    @Autowired
+    private HeavyOperationExecutor heavyOperationExecutor;
+
+    @Autowired
+    private WordFilter wordFilter;
+
+    @Autowired
+    private WordChangeTailer wordChangeTailer;
+
+    @Autowired
+    private WordChangeLog wordChangeLog;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @LocalServerPort
     private int port;
 
@@ -42,6 +101,10 @@ public class WordControllerTest {
 
     private static final int expectedStatusCode = 200;
 
+    @Before
+    public void rebuildDictionary() {
+        dictionaryService.rebuild();
+    }
 
  // @Before
     @Ignore
@@ -51,8 +114,8 @@ public class WordControllerTest {
         List<Word> wordList = new ArrayList<>();
         wordList.add(newWord1);
 
-        ResponseEntity<List> postResponse = restTemplate
-                .postForEntity(getRootUrl() + "/words/dictionary", wordList, List.class);
+        ResponseEntity<Map> postResponse = restTemplate
+                .postForEntity(getRootUrl() + "/words/dictionary", wordList, Map.class);
 
         LOG.info("Response_Body:"+postResponse.getBody());
         LOG.info("Response_Header:"+postResponse.getHeaders());
@@ -78,6 +141,53 @@ public class WordControllerTest {
         Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testGetWordsPageByCursor() {
+        ResponseEntity<List> first = restTemplate.getForEntity(getRootUrl() + "/words?limit=4", List.class);
+
+        Assert.assertEquals(4, first.getBody().size());
+        Assert.assertEquals("4", first.getHeaders().getFirst("X-Next-Cursor"));
+
+        ResponseEntity<List> second = restTemplate.getForEntity(getRootUrl() + "/words?after=4&limit=4", List.class);
+
+        Assert.assertEquals(3, second.getBody().size());
+        Assert.assertNull(second.getHeaders().getFirst("X-Next-Cursor"));
+    }
+
+    @Test
+    public void testStreamAllWords() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.parseMediaType("application/x-ndjson")));
+        HttpEntity<String> entity = new HttpEntity<String>(null, headers);
+
+        ResponseEntity<String> response = restTemplate.exchange(getRootUrl() + "/words",
+                HttpMethod.GET, entity, String.class);
+        String[] lines = response.getBody().split("\n");
+
+        Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
+        Assert.assertEquals(7, lines.length);
+        Assert.assertTrue(lines[0].contains("\"value\":\"read\""));
+    }
+
+    @Test
+    public void testAnagramMetrics() {
+        restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/2", List.class);
+        Word word = new Word();
+        word.setValue("pot");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(word), Map.class);
+
+        String metrics = "http://localhost:" + port + "/actuator/metrics/";
+        Map lookup = restTemplate.getForObject(metrics + "anagrams.operation?tag=operation:lookup", Map.class);
+        Map size = restTemplate.getForObject(metrics + "anagrams.dictionary.size", Map.class);
+        Map ingested = restTemplate.getForObject(metrics + "anagrams.ingest.words?tag=source:words&tag=result:inserted", Map.class);
+        Map probes = restTemplate.getForObject(metrics + "anagrams.index.probes", Map.class);
+
+        Assert.assertNotNull(lookup.get("measurements"));
+        Assert.assertEquals(8.0, ((Map) ((List) size.get("measurements")).get(0)).get("value"));
+        Assert.assertNotNull(ingested.get("measurements"));
+        Assert.assertTrue((Double) ((Map) ((List) probes.get("measurements")).get(0)).get("value") > 0);
+    }
+
     @Test
     public void testGetWordsById() {
         Word word = restTemplate.getForObject(getRootUrl() + "/word/id/1", Word.class);
@@ -100,6 +210,55 @@ public class WordControllerTest {
         Assert.assertEquals("read",word.getValue());
     }
 
+    @Test
+    public void testWordCache() {
+        Assert.assertEquals("read", restTemplate.getForObject(getRootUrl() + "/word/id/1", Word.class).getValue());
+        Assert.assertEquals("read", restTemplate.getForObject(getRootUrl() + "/word/id/1", Word.class).getValue());
+        Assert.assertEquals(1, restTemplate.getForObject(getRootUrl() + "/word/value/read", Word.class).getId());
+        Assert.assertEquals(1, restTemplate.getForObject(getRootUrl() + "/word/value/read", Word.class).getId());
+
+        Map hits = restTemplate.getForObject(
+                "http://localhost:" + port + "/actuator/metrics/cache.gets?tag=cache:words.id&tag=result:hit", Map.class);
+        Assert.assertTrue((Double) ((Map) ((List) hits.get("measurements")).get(0)).get("value") >= 1);
+        Map bytes = restTemplate.getForObject(
+                "http://localhost:" + port + "/actuator/metrics/words.cache.bytes?tag=cache:words.value", Map.class);
+        Assert.assertTrue((Double) ((Map) ((List) bytes.get("measurements")).get(0)).get("value") > 0);
+
+        restTemplate.delete(getRootUrl() + "/word/value/read");
+        Assert.assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity(getRootUrl() + "/word/id/1", String.class).getStatusCode());
+        Assert.assertEquals(HttpStatus.NOT_FOUND,
+                restTemplate.getForEntity(getRootUrl() + "/word/value/read", String.class).getStatusCode());
+
+        Word w = new Word();
+        w.setValue("read");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(w), Map.class);
+        Assert.assertEquals("read", restTemplate.getForObject(getRootUrl() + "/word/value/read", Word.class).getValue());
+        Assert.assertFalse(restTemplate.getForObject(getRootUrl() + "/word/value/read", Map.class).containsKey("signature"));
+    }
+
+    @Test
+    public void testGetMissingWordByValue() {
+        ResponseEntity<String> missing = restTemplate.getForEntity(getRootUrl() + "/word/value/quartz", String.class);
+        Assert.assertEquals(HttpStatus.NOT_FOUND, missing.getStatusCode());
+
+        Word w = new Word();
+        w.setValue("quartz");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(w), Map.class);
+        Assert.assertEquals("quartz", restTemplate.getForObject(getRootUrl() + "/word/value/quartz", Word.class).getValue());
+
+        jdbcTemplate.update("INSERT INTO words (id, value, signature) VALUES (100, 'zephyr', 'ehprvz')");
+        jdbcTemplate.update("INSERT INTO word_changes (instance_id, type, word_id, value) VALUES ('other', 'ADDED', 100, 'zephyr')");
+        // once the log is read, misses go to the table until the change is applied
+        wordChangeLog.getLastSeq();
+        Assert.assertEquals(100, restTemplate.getForObject(getRootUrl() + "/word/value/zephyr", Word.class).getId());
+
+        wordChangeTailer.poll();
+        Assert.assertTrue(wordFilter.mightContain("Zephyr"));
+        Assert.assertEquals(HttpStatus.OK,
+                restTemplate.exchange(getRootUrl() + "/word/value/zephyr", HttpMethod.DELETE, null, String.class).getStatusCode());
+    }
+
     @Test
     public void testGetStats() {
         HttpHeaders headers = new HttpHeaders();
@@ -115,6 +274,42 @@ public class WordControllerTest {
         Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testGetStatsAfterChanges() {
+        Word word = new Word();
+        word.setValue("zebra");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(word), Map.class);
+        restTemplate.delete(getRootUrl() + "/word/value/read");
+
+        List<String> stats = restTemplate.getForObject(getRootUrl() + "/words/stats", List.class);
+
+        Assert.assertEquals("count of words:7", stats.get(0));
+        Assert.assertEquals("smallest word:enlist, size:6", stats.get(1));
+        Assert.assertEquals("largest word:zebra, size:5", stats.get(2));
+        Assert.assertEquals("avg length of the list of words:4.714285714285714", stats.get(3));
+        Assert.assertTrue(stats.get(4).contains("value='silent'"));
+        Assert.assertEquals("length histogram:{3=2, 4=1, 5=1, 6=3}", stats.get(5));
+        Assert.assertEquals("anagram classes:4", stats.get(6));
+    }
+
+    @Test
+    public void testGetAnagramsOfWordsNamingOtherEndpoints() {
+        List<Word> wordList = new ArrayList<>();
+        for (String value : new String[]{"phrase", "sherpa", "near", "earn", "blanks"}) {
+            Word w = new Word();
+            w.setValue(value);
+            wordList.add(w);
+        }
+        restTemplate.postForObject(getRootUrl() + "/words", wordList, Map.class);
+
+        Assert.assertEquals(Arrays.asList("phrase", "sherpa"),
+                restTemplate.getForObject(getRootUrl() + "/words/anagrams/phrase/5", List.class));
+        Assert.assertEquals(Arrays.asList("near", "earn"),
+                restTemplate.getForObject(getRootUrl() + "/words/anagrams/near/5", List.class));
+        Assert.assertEquals(Collections.singletonList("blanks"),
+                restTemplate.getForObject(getRootUrl() + "/words/anagrams/blanks/5", List.class));
+    }
+
     @Test
     public void testGetAnagrams() {
         HttpHeaders headers = new HttpHeaders();
@@ -130,6 +325,29 @@ public class WordControllerTest {
         Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testGetAnagramsFromIndex() {
+        List<String> anagrams = restTemplate.getForObject(getRootUrl() + "/words/anagrams/Tinsel/2", List.class);
+
+        Assert.assertEquals(2, anagrams.size());
+        Assert.assertEquals("silent", anagrams.get(0));
+        Assert.assertEquals("listen", anagrams.get(1));
+    }
+
+    @Test
+    public void testSignatureFinders() {
+        jdbcTemplate.update("INSERT INTO words (id, value) VALUES (8, 'tinsel')");
+
+        Assert.assertEquals(1, signatureBackfill.backfill());
+        Assert.assertEquals(4, wordRepository.countBySignature("eilnst"));
+        Assert.assertEquals("art", wordRepository.findBySignatureOrderByIdAsc("art").get(0).getSignature());
+
+        List<AnagramClass> classes = wordRepository.findAnagramClasses(PageRequest.of(0, 1));
+        Assert.assertEquals("eilnst", classes.get(0).getSignature());
+        Assert.assertEquals(4, classes.get(0).getSize());
+        Assert.assertEquals(1, wordRepository.findAnagramClassesBySize(2).size());
+    }
+
     @Test
     public void testGetUrlAnagrams() {
         HttpHeaders headers = new HttpHeaders();
@@ -146,6 +364,29 @@ public class WordControllerTest {
         Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testPostBatchAnagrams() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(Collections.singletonList(MediaType.parseMediaType("application/x-ndjson")));
+        ResponseEntity<String> response = restTemplate.exchange(getRootUrl() + "/words/anagrams/batch", HttpMethod.POST,
+                new HttpEntity<>("[\"silent\", \"tar\", \"nope\", \"Listen\"]", headers), String.class);
+        String[] lines = response.getBody().split("\n");
+
+        Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
+        Assert.assertEquals(4, lines.length);
+        Assert.assertEquals("{\"word\":\"silent\",\"anagrams\":[\"silent\",\"listen\",\"enlist\"]}", lines[0]);
+        Assert.assertEquals("{\"word\":\"tar\",\"anagrams\":[\"tar\",\"rat\"]}", lines[1]);
+        Assert.assertEquals("{\"word\":\"nope\",\"anagrams\":[]}", lines[2]);
+        Assert.assertEquals("{\"word\":\"Listen\",\"anagrams\":[\"silent\",\"listen\",\"enlist\"]}", lines[3]);
+
+        headers.setContentType(MediaType.parseMediaType("application/x-ndjson"));
+        response = restTemplate.exchange(getRootUrl() + "/words/anagrams/batch", HttpMethod.POST,
+                new HttpEntity<>("\"xray\"\n\"read\"\n", headers), String.class);
+
+        Assert.assertEquals(2, response.getBody().split("\n").length);
+    }
+
     @Test
     public void testGetXSizedAnagrams() {
         HttpHeaders headers = new HttpHeaders();
@@ -161,6 +402,238 @@ public class WordControllerTest {
         Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
     }
 
+    @Test
+    public void testAnagramQueryCacheInvalidation() {
+        List<String> before = restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/10", List.class);
+        String maxBefore = restTemplate.getForObject(getRootUrl() + "/words/anagrams/max", String.class);
+        restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/10", List.class);
+
+        Word word = new Word();
+        word.setValue("art");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(word), Map.class);
+
+        Assert.assertEquals(before, restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/10", List.class));
+        Assert.assertEquals(maxBefore, restTemplate.getForObject(getRootUrl() + "/words/anagrams/max", String.class));
+        Assert.assertEquals(3, restTemplate.getForObject(getRootUrl() + "/words/anagrams/tar/10", List.class).size());
+
+        word.setValue("tinsel");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(word), Map.class);
+
+        Assert.assertEquals(4, restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/10", List.class).size());
+        Assert.assertTrue(restTemplate.getForObject(getRootUrl() + "/words/anagrams/max", String.class).contains("tinsel"));
+
+        Map hits = restTemplate.getForObject(
+                "http://localhost:" + port + "/actuator/metrics/cache.gets?tag=cache:anagrams.query&tag=result:hit", Map.class);
+        Assert.assertNotNull(hits.get("measurements"));
+    }
+
+    @Test
+    public void testGetSubAnagrams() {
+        List<String> words = restTemplate.getForObject(getRootUrl() + "/words/subanagrams/TARXYZ", List.class);
+
+        Assert.assertEquals("xray", words.get(0));
+        Assert.assertEquals(3, words.size());
+
+        restTemplate.delete(getRootUrl() + "/word/value/xray");
+        words = restTemplate.getForObject(getRootUrl() + "/words/subanagrams/silentra?limit=4", List.class);
+
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist", "tar"), words);
+    }
+
+    @Test
+    public void testInMemoryQueriesWhileLoading() {
+        ReflectionTestUtils.setField(dictionaryService, "ready", false);
+        try {
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.getForEntity(getRootUrl() + "/words/subanagrams/tar", String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.getForEntity(getRootUrl() + "/words/phrase-anagrams/dormitory", String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.getForEntity(getRootUrl() + "/words/near-anagrams/tar", String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.getForEntity(getRootUrl() + "/words/blank-anagrams/t_r", String.class).getStatusCode());
+        } finally {
+            ReflectionTestUtils.setField(dictionaryService, "ready", true);
+        }
+    }
+
+    @Test
+    public void testStatsAndMutationsWhileLoading() {
+        Word w = new Word();
+        w.setValue("quartz");
+        ReflectionTestUtils.setField(dictionaryService, "ready", false);
+        try {
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.getForEntity(getRootUrl() + "/words/stats", String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.postForEntity(getRootUrl() + "/words/stats/rebuild", null, String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.postForEntity(getRootUrl() + "/words", Collections.singletonList(w), String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.exchange(getRootUrl() + "/word/value/tar", HttpMethod.DELETE, null, String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.exchange(getRootUrl() + "/words/anagrams/tar", HttpMethod.DELETE, null, String.class).getStatusCode());
+            Assert.assertEquals(HttpStatus.SERVICE_UNAVAILABLE,
+                    restTemplate.exchange(getRootUrl() + "/words/all", HttpMethod.DELETE, null, String.class).getStatusCode());
+        } finally {
+            ReflectionTestUtils.setField(dictionaryService, "ready", true);
+        }
+
+        Assert.assertEquals(7, wordRepository.count());
+    }
+
+    @Test
+    public void testNotReadyWhileRebuilding() {
+        List<Boolean> readyWhileLoading = new ArrayList<>();
+        DictionaryListener listener = new DictionaryListener() {
+            @Override
+            public void wordsAdded(Collection<Word> words) {
+                readyWhileLoading.add(dictionaryService.isReady());
+            }
+
+            @Override
+            public void wordsRemoved(Collection<Word> words) {
+            }
+
+            @Override
+            public void cleared() {
+                readyWhileLoading.add(dictionaryService.isReady());
+            }
+        };
+
+        dictionaryService.rebuild(listener);
+        Assert.assertEquals(Arrays.asList(false, false), readyWhileLoading);
+        Assert.assertTrue(dictionaryService.isReady());
+
+        readyWhileLoading.clear();
+        List<DictionaryListener> listeners = (List<DictionaryListener>) ReflectionTestUtils.getField(dictionaryService, "listeners");
+        listeners.add(listener);
+        try {
+            dictionaryService.rebuild();
+        } finally {
+            listeners.remove(listener);
+        }
+        Assert.assertEquals(Arrays.asList(false, false), readyWhileLoading);
+        Assert.assertTrue(dictionaryService.isReady());
+    }
+
+    @Test
+    public void testGetAnagramsFromWordStoreWithoutIndex() {
+        ReflectionTestUtils.setField(anagramIndex, "enabled", false);
+        try {
+            Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"),
+                    restTemplate.getForObject(getRootUrl() + "/words/anagrams/inlets/10", List.class));
+        } finally {
+            ReflectionTestUtils.setField(anagramIndex, "enabled", true);
+        }
+    }
+
+    @Test
+    public void testGetBlankAnagrams() {
+        List<Map> words = restTemplate.getForObject(getRootUrl() + "/words/blank-anagrams/{tiles}", List.class, "r?d?");
+
+        Assert.assertEquals(1, words.size());
+        Assert.assertEquals("read", words.get(0).get("value"));
+        Assert.assertEquals("ae", words.get(0).get("blanks"));
+
+        words = restTemplate.getForObject(getRootUrl() + "/words/blank-anagrams/s_l_nt", List.class);
+        Assert.assertEquals(3, words.size());
+        Assert.assertEquals("ei", words.get(0).get("blanks"));
+
+        words = restTemplate.getForObject(getRootUrl() + "/words/blank-anagrams/___?limit=1", List.class);
+        Assert.assertEquals(1, words.size());
+        Assert.assertEquals("art", words.get(0).get("blanks"));
+    }
+
+    @Test
+    public void testGetNearAnagrams() {
+        Map near = restTemplate.getForObject(getRootUrl() + "/words/near-anagrams/tars", Map.class);
+
+        Assert.assertEquals(Arrays.asList("tar", "rat"), new ArrayList<>(near.keySet()));
+        Assert.assertEquals(1, near.get("tar"));
+
+        near = restTemplate.getForObject(getRootUrl() + "/words/near-anagrams/rays?edits=2&limit=2", Map.class);
+        Assert.assertEquals(Arrays.asList("xray", "read"), new ArrayList<>(near.keySet()));
+        Assert.assertEquals(2, near.get("read"));
+    }
+
+    @Test
+    public void testGetPhraseAnagrams() {
+        List<Word> wordList = new ArrayList<>();
+        for (String value : new String[]{"dirty", "room", "moor"}) {
+            Word w = new Word();
+            w.setValue(value);
+            wordList.add(w);
+        }
+        restTemplate.postForObject(getRootUrl() + "/words", wordList, Map.class);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(Collections.singletonList(MediaType.parseMediaType("application/x-ndjson")));
+        ResponseEntity<String> response = restTemplate.exchange(getRootUrl() + "/words/phrase-anagrams/Dormitory",
+                HttpMethod.GET, new HttpEntity<String>(null, headers), String.class);
+        List<String> lines = Arrays.asList(response.getBody().split("\n"));
+
+        Assert.assertEquals(expectedStatusCode, response.getStatusCodeValue());
+        Assert.assertEquals(2, lines.size());
+        Assert.assertTrue(lines.contains("[\"dirty\",\"room\"]"));
+        Assert.assertTrue(lines.contains("[\"dirty\",\"moor\"]"));
+
+        response = restTemplate.exchange(getRootUrl() + "/words/phrase-anagrams/moorroom",
+                HttpMethod.GET, new HttpEntity<String>(null, headers), String.class);
+        lines = Arrays.asList(response.getBody().split("\n"));
+
+        Assert.assertEquals(3, lines.size());
+        Assert.assertTrue(lines.contains("[\"room\",\"room\"]"));
+        Assert.assertTrue(lines.contains("[\"room\",\"moor\"]"));
+        Assert.assertTrue(lines.contains("[\"moor\",\"moor\"]"));
+    }
+
+    @Test
+    public void testGetMaxAnagramsFromIndex() {
+        String max = restTemplate.getForObject(getRootUrl() + "/words/anagrams/max", String.class);
+
+        Assert.assertEquals("Key = silent, Value = [silent, listen, enlist]", max);
+    }
+
+    @Test
+    public void testGetTopAnagramClasses() {
+        List<Map> classes = restTemplate.getForObject(getRootUrl() + "/words/anagrams/top?size=2", List.class);
+
+        Assert.assertEquals(2, classes.size());
+        Assert.assertEquals("eilnst", classes.get(0).get("signature"));
+        Assert.assertEquals(3, classes.get(0).get("size"));
+        Assert.assertEquals(Arrays.asList("tar", "rat"), classes.get(1).get("words"));
+
+        classes = restTemplate.getForObject(getRootUrl() + "/words/anagrams/top?page=1&size=2", List.class);
+        Assert.assertEquals("ader", classes.get(0).get("signature"));
+        Assert.assertEquals("arxy", classes.get(1).get("signature"));
+        Assert.assertTrue(restTemplate.getForObject(getRootUrl() + "/words/anagrams/top?page=2&size=2", List.class).isEmpty());
+        // page * size is 2^32, which wraps to 0 as an int
+        Assert.assertTrue(restTemplate.getForObject(getRootUrl() + "/words/anagrams/top?page=1073741824&size=4", List.class).isEmpty());
+    }
+
+    @Test
+    public void testGetAnagramClassHistogram() {
+        Map histogram = restTemplate.getForObject(getRootUrl() + "/words/anagrams/histogram", Map.class);
+
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), new ArrayList<>(histogram.keySet()));
+        Assert.assertEquals(2, histogram.get("1"));
+        Assert.assertEquals(1, histogram.get("3"));
+
+        List<Object[]> rows = wordRepository.findClassSizeHistogram();
+        Assert.assertEquals(3, rows.size());
+        Assert.assertEquals(2, ((Number) rows.get(0)[1]).intValue());
+    }
+
+    @Test
+    public void testGetXSizedAnagramsListsEachClassPerMember() {
+        List<List<String>> classes = restTemplate.getForObject(getRootUrl() + "/words/anagrams/2", List.class);
+
+        Assert.assertEquals(2, classes.size());
+        Assert.assertEquals(2, classes.get(0).size());
+        Assert.assertEquals(classes.get(0), classes.get(1));
+    }
+
     @Test
     public void testPostCreateWord() {
         Word newWord1 = new Word();
@@ -171,8 +644,8 @@ public class WordControllerTest {
         wordList.add(newWord1);
         wordList.add(newWord2);
 
-        ResponseEntity<List> postResponse = restTemplate
-                .postForEntity(getRootUrl() + "/words", wordList, List.class);
+        ResponseEntity<Map> postResponse = restTemplate
+                .postForEntity(getRootUrl() + "/words", wordList, Map.class);
 
         LOG.info("Response_Body:"+postResponse.getBody());
         LOG.info("Response_Header:"+postResponse.getHeaders());
@@ -180,6 +653,26 @@ public class WordControllerTest {
         Assert.assertNotNull(postResponse);
         Assert.assertNotNull(postResponse.getBody());
         Assert.assertEquals(expectedStatusCode, postResponse.getStatusCodeValue());
+        Assert.assertEquals(2, postResponse.getBody().get("inserted"));
+        Assert.assertEquals(0, postResponse.getBody().get("skipped"));
+    }
+
+    @Test
+    public void testPostCreateWordSkipsDuplicates() {
+        List<Word> wordList = new ArrayList<>();
+        for (String value : new String[]{"read", "dare", "dare", " read", " dear "}) {
+            Word w = new Word();
+            w.setValue(value);
+            wordList.add(w);
+        }
+
+        Map summary = restTemplate.postForObject(getRootUrl() + "/words", wordList, Map.class);
+        List<String> anagrams = restTemplate.getForObject(getRootUrl() + "/words/anagrams/read/5", List.class);
+
+        Assert.assertEquals(2, summary.get("inserted"));
+        Assert.assertEquals(3, summary.get("skipped"));
+        Assert.assertEquals(3, anagrams.size());
+        Assert.assertTrue(anagrams.contains("dear"));
     }
 
     @Test
@@ -211,6 +704,126 @@ public class WordControllerTest {
         }
     }
 
+    @Test
+    public void testDeleteAnagramClassBySignature() {
+        ResponseEntity<List> response = restTemplate.exchange(getRootUrl() + "/words/anagrams/Tinsel",
+                HttpMethod.DELETE, null, List.class);
+
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), response.getBody());
+        Assert.assertTrue(restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/3", List.class).isEmpty());
+        Assert.assertEquals(0, wordRepository.countBySignature("eilnst"));
+
+        response = restTemplate.exchange(getRootUrl() + "/words/anagrams/ta", HttpMethod.DELETE, null, List.class);
+
+        Assert.assertTrue(response.getBody().isEmpty());
+        Assert.assertEquals(4, wordRepository.count());
+    }
+
+    @Test
+    public void testHeavyOperationsAreShed() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        heavyOperationExecutor.query("max", () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return null;
+        });
+        running.await();
+
+        try {
+            ResponseEntity<String> shed = restTemplate.getForEntity(getRootUrl() + "/words/anagrams/max", String.class);
+
+            Assert.assertEquals(HttpStatus.TOO_MANY_REQUESTS, shed.getStatusCode());
+            Assert.assertEquals("1", shed.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            Assert.assertEquals(expectedStatusCode,
+                    restTemplate.getForEntity(getRootUrl() + "/word/id/1", String.class).getStatusCodeValue());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    public void testHeavyOperationsStopAtTheirDeadline() throws InterruptedException {
+        long timeoutMillis = (long) ReflectionTestUtils.getField(heavyOperationExecutor, "timeoutMillis");
+        ReflectionTestUtils.setField(heavyOperationExecutor, "timeoutMillis", 200L);
+        DeferredResult<Object> result;
+
+        try {
+            result = heavyOperationExecutor.mutate("deadline", () -> {
+                Assert.assertTrue(HeavyOperationExecutor.getRemainingSeconds() > 0);
+                long start = System.nanoTime();
+                while (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(300))
+                    Thread.yield();
+                HeavyOperationExecutor.checkDeadline();
+                return "finished";
+            });
+        } finally {
+            ReflectionTestUtils.setField(heavyOperationExecutor, "timeoutMillis", timeoutMillis);
+        }
+        for (int i = 0; i < 100 && !result.hasResult(); i++)
+            Thread.sleep(10);
+
+        Assert.assertTrue(result.getResult() instanceof AsyncRequestTimeoutException);
+        Assert.assertEquals(TransactionDefinition.TIMEOUT_DEFAULT, HeavyOperationExecutor.getRemainingSeconds());
+    }
+
+    @Test
+    public void testWarmUp() {
+        dictionaryWarmup.warmUp();
+
+        Assert.assertTrue(dictionaryService.isReady());
+        Health health = dictionaryWarmup.health();
+        Assert.assertEquals(Status.UP, health.getStatus());
+        Assert.assertEquals(7L, health.getDetails().get("loaded"));
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"),
+                restTemplate.getForObject(getRootUrl() + "/words/anagrams/tinsel/10", List.class));
+        Assert.assertEquals("count of words:7",
+                restTemplate.getForObject(getRootUrl() + "/words/stats", List.class).get(0));
+    }
+
+    @Test
+    public void testWriteSnapshot() {
+        Map response = restTemplate.postForObject(getRootUrl() + "/words/snapshot", null, Map.class);
+
+        Assert.assertEquals(7, ((Number) response.get("words")).intValue());
+        Assert.assertEquals(4, ((Number) response.get("classes")).intValue());
+        DictionarySnapshot snapshot = dictionarySnapshotService.getSnapshot();
+        Assert.assertNotNull(snapshot);
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), snapshot.getAnagrams("tinsel", 10));
+
+        restTemplate.delete(getRootUrl() + "/word/value/xray");
+
+        Assert.assertNull(dictionarySnapshotService.getSnapshot());
+
+        dictionarySnapshotService.write();
+        jdbcTemplate.update("INSERT INTO word_changes (instance_id, type, word_id, value) VALUES ('other', 'ADDED', 100, 'zephyr')");
+        wordChangeTailer.poll();
+        Assert.assertNull(dictionarySnapshotService.getSnapshot());
+
+        dictionarySnapshotService.scheduledWrite();
+        Assert.assertNotNull(dictionarySnapshotService.getSnapshot());
+    }
+
+    @Test
+    public void testDeleteAllWordsResetsIds() {
+        restTemplate.delete(getRootUrl() + "/words/all?resetIds=true");
+
+        Assert.assertEquals(0, wordRepository.count());
+        Assert.assertTrue(restTemplate.getForObject(getRootUrl() + "/words/anagrams/silent/3", List.class).isEmpty());
+        Assert.assertEquals("count of words:0",
+                restTemplate.getForObject(getRootUrl() + "/words/stats", List.class).get(0));
+
+        Word word = new Word();
+        word.setValue("pot");
+        restTemplate.postForObject(getRootUrl() + "/words", Collections.singletonList(word), Map.class);
+
+        Assert.assertEquals(1, wordRepository.findByValue("pot").getId());
+    }
+
     @After
     public void testDeleteAllWords() {
         List<Word> words = restTemplate.getForObject(getRootUrl() + "/words", List.class);
@@ -0,0 +1,68 @@
+package com.api.anagrams.anagram;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+
+public class AnagramGroupsTest {
+
+    private AnagramGroups groups() {
+        return AnagramGroups.of(Arrays.asList("read", "tar", "rat", "silent", "listen", "xray", "enlist", "dare"));
+    }
+
+    @Test
+    public void testGetAnagramsByWord() {
+        Map<String, List<String>> map = groups().getAnagramsByWord();
+
+        Assert.assertEquals(8, map.size());
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), map.get("listen"));
+        Assert.assertEquals(Arrays.asList("xray"), map.get("xray"));
+    }
+
+    @Test
+    public void testLargestClassAndHistogram() {
+        AnagramGroups groups = groups();
+        SortedMap<Integer, Integer> histogram = groups.getHistogram();
+
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), groups.getLargestClass());
+        Assert.assertEquals(Integer.valueOf(1), histogram.get(1));
+        Assert.assertEquals(Integer.valueOf(2), histogram.get(2));
+        Assert.assertEquals(Integer.valueOf(1), histogram.get(3));
+        Assert.assertEquals(4, groups.getClassCount());
+    }
+
+    @Test
+    public void testRemoveUpdatesSizes() {
+        AnagramGroups groups = groups();
+        groups.remove("silent");
+        groups.remove("listen");
+
+        Assert.assertEquals(2, groups.getClassesOfSize(1).size());
+        Assert.assertEquals(2, groups.getClassesOfSize(2).size());
+        Assert.assertTrue(groups.getClassesOfSize(3).isEmpty());
+        Assert.assertFalse(groups.remove("silent"));
+    }
+
+    @Test
+    public void testNearAnagrams() {
+        AnagramGroups groups = groups();
+        Map<String, Integer> near = groups.getNearAnagrams("Tinsel", 1, 10);
+
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), new ArrayList<>(near.keySet()));
+        Assert.assertEquals(Integer.valueOf(0), near.get("silent"));
+
+        near = groups.getNearAnagrams("dears", 1, 10);
+        Assert.assertEquals(Arrays.asList("read", "dare"), new ArrayList<>(near.keySet()));
+        Assert.assertEquals(Integer.valueOf(1), near.get("read"));
+
+        near = groups.getNearAnagrams("rays", 2, 10);
+        Assert.assertEquals(Integer.valueOf(1), near.get("xray"));
+        Assert.assertEquals(Integer.valueOf(2), near.get("tar"));
+        Assert.assertEquals(1, groups.getNearAnagrams("rays", 2, 1).size());
+    }
+}
@@ -0,0 +1,61 @@
+package com.api.anagrams.anagram;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class AnagramImplTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyWordIsRejected() {
+        AnagramImpl.Anagram("", "silent");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullWordIsRejected() {
+        AnagramImpl.Anagram("listen", null);
+    }
+
+    @Test
+    public void testLatin1Words() {
+        Assert.assertEquals("silent", AnagramImpl.Anagram("Listen", "silent"));
+        Assert.assertEquals("Éclat", AnagramImpl.Anagram("talcé", "Éclat"));
+        Assert.assertNull(AnagramImpl.Anagram("listen", "silenc"));
+        Assert.assertNull(AnagramImpl.Anagram("aab", "abb"));
+        Assert.assertNull(AnagramImpl.Anagram("rat", "rats"));
+        // a rejected comparison must not leave counts behind for the next one
+        Assert.assertEquals("bba", AnagramImpl.Anagram("abb", "bba"));
+    }
+
+    @Test
+    public void testUnicodeWords() {
+        Assert.assertEquals("ΣΟΦ", AnagramImpl.Anagram("φοσ", "ΣΟΦ"));
+        Assert.assertNull(AnagramImpl.Anagram("φοσ", "φοο"));
+        Assert.assertEquals("b😀a", AnagramImpl.Anagram("a😀b", "b😀a"));
+    }
+
+    @Test
+    public void testFingerprint() {
+        long listen = AnagramImpl.fingerprint("listen");
+
+        Assert.assertEquals(listen, AnagramImpl.fingerprint("Silent"));
+        Assert.assertNotEquals(listen, AnagramImpl.fingerprint("silenc"));
+        Assert.assertNull(AnagramImpl.Anagram("listen", listen, "silenc", AnagramImpl.fingerprint("silenc")));
+        Assert.assertEquals("enlist", AnagramImpl.Anagram("listen", listen, "enlist", AnagramImpl.fingerprint("enlist")));
+    }
+
+    @Test
+    public void testFingerprintOfUtf8() {
+        for (String word : new String[]{"Listen", "talcé", "ΦΟΣ", "a😀b"}) {
+            byte[] utf8 = ("x" + word).getBytes(StandardCharsets.UTF_8);
+            Assert.assertEquals(AnagramImpl.fingerprint(word), AnagramImpl.fingerprint(utf8, 1, utf8.length - 1));
+        }
+    }
+
+    @Test
+    public void testSignature() {
+        Assert.assertEquals("eilnst", AnagramImpl.signature("Listen"));
+        Assert.assertEquals("οσφ", AnagramImpl.signature("ΦΟΣ"));
+    }
+}
@@ -0,0 +1,85 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.Word;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AnagramQueryCacheTest {
+
+    private AnagramIndex index;
+
+    private AnagramQueryCache cache;
+
+    private static Word word(long id, String value) {
+        Word w = new Word();
+        w.setId(id);
+        w.setValue(value);
+
+        return w;
+    }
+
+    @Before
+    public void setUp() {
+        index = new AnagramIndex();
+        cache = new AnagramQueryCache();
+        ReflectionTestUtils.setField(cache, "anagramIndex", index);
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 100L);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 600L);
+        cache.init();
+        index.wordsAdded(Arrays.asList(word(1, "tar"), word(2, "rat")));
+    }
+
+    @Test
+    public void testLimitIsAppliedToTheCachedClass() {
+        AtomicInteger loads = new AtomicInteger();
+
+        Assert.assertEquals(Collections.singletonList("tar"), cache.getAnagrams("art", 1, () -> {
+            loads.incrementAndGet();
+            return index.getAnagrams("art", Integer.MAX_VALUE);
+        }));
+        Assert.assertEquals(Arrays.asList("tar", "rat"), cache.getAnagrams("rat", 10, () -> {
+            loads.incrementAndGet();
+            return index.getAnagrams("rat", Integer.MAX_VALUE);
+        }));
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testLoadRacingAChangeIsNotKept() {
+        List<String> stale = cache.getAnagrams("art", 10, () -> {
+            List<String> read = index.getAnagrams("art", Integer.MAX_VALUE);
+            List<Word> added = Collections.singletonList(word(3, "art"));
+            index.wordsAdded(added);
+            cache.wordsAdded(added);
+            return read;
+        });
+        Assert.assertEquals(2, stale.size());
+
+        Assert.assertEquals(3, cache.getAnagrams("art", 10, () -> new ArrayList<>(index.getAnagrams("art", 10))).size());
+    }
+
+    @Test
+    public void testChangeDropsOnlyItsClasses() {
+        cache.getClassesOfSize(2, () -> index.getClassesOfSize(2));
+        cache.getClassesOfSize(5, () -> index.getClassesOfSize(5));
+        cache.getAnagrams("tar", 10, () -> index.getAnagrams("tar", 10));
+
+        List<Word> added = Collections.singletonList(word(3, "read"));
+        index.wordsAdded(added);
+        cache.wordsAdded(added);
+
+        Assert.assertTrue(cache.getClassesOfSize(5, () -> null).isEmpty());
+        Assert.assertEquals(2, cache.getAnagrams("tar", 10, () -> null).size());
+        Assert.assertEquals(1, cache.getClassesOfSize(1, () -> index.getClassesOfSize(1)).size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.api.anagrams.anagram;
+
+import com.api.anagrams.model.Word;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DictionarySnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Word> words(String... values) {
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < values.length; i++) {
+            Word w = new Word();
+            w.setId(i + 1);
+            w.setValue(values[i]);
+            words.add(w);
+        }
+
+        return words;
+    }
+
+    @Test
+    public void testWriteAndQueryInPlace() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("anagrams.snapshot");
+        DictionarySnapshot.write(file, 42, words("read", "tar", "rat", "silent", "listen", "xray", "enlist", "Dare").iterator());
+        DictionarySnapshot snapshot = DictionarySnapshot.open(file);
+
+        Assert.assertEquals(8, snapshot.getWordCount());
+        Assert.assertEquals(8, snapshot.getMaxId());
+        Assert.assertEquals(4, snapshot.getClassCount());
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), snapshot.getAnagrams("TINSEL", 10));
+        Assert.assertEquals(Arrays.asList("silent", "listen"), snapshot.getAnagrams("tinsel", 2));
+        Assert.assertEquals(Arrays.asList("read", "Dare"), snapshot.getAnagrams("dear", 10));
+        Assert.assertEquals(Arrays.asList("silent", "listen", "enlist"), snapshot.getLargestClass());
+        Assert.assertEquals(2, snapshot.getClassSize("art"));
+        Assert.assertEquals(0, snapshot.getClassSize("xyz"));
+        Assert.assertTrue(snapshot.getAnagrams("zebra", 10).isEmpty());
+        Assert.assertEquals(42, snapshot.getChangeSeq());
+        Assert.assertTrue(snapshot.isCurrent(42));
+        Assert.assertFalse(snapshot.isCurrent(43));
+    }
+
+    @Test
+    public void testEmptyDictionary() throws IOException {
+        Path file = folder.getRoot().toPath().resolve("empty.snapshot");
+        DictionarySnapshot snapshot = DictionarySnapshot.write(file, 0, Collections.<Word>emptyIterator());
+
+        Assert.assertEquals(0, snapshot.getWordCount());
+        Assert.assertTrue(snapshot.getLargestClass().isEmpty());
+        Assert.assertTrue(snapshot.getAnagrams("tar", 10).isEmpty());
+    }
+
+    @Test(expected = IOException.class)
+    public void testRejectsOtherFiles() throws IOException {
+        DictionarySnapshot.open(folder.newFile("other").toPath());
+    }
+}
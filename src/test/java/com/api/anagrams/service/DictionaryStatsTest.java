@@ -0,0 +1,36 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class DictionaryStatsTest {
+
+    private static Word word(long id, String value) {
+        Word w = new Word();
+        w.setId(id);
+        w.setValue(value);
+
+        return w;
+    }
+
+    @Test
+    public void testReplayedWordsAreCountedOnce() {
+        WordStore store = new WordStore();
+        ReflectionTestUtils.setField(store, "enabled", false);
+        DictionaryStats stats = new DictionaryStats();
+        ReflectionTestUtils.setField(stats, "wordStore", store);
+
+        stats.wordsAdded(Arrays.asList(word(1, "read"), word(2, "tar")));
+        stats.wordsAdded(Collections.singletonList(word(2, "tar")));
+        Assert.assertEquals(2, stats.getCount());
+
+        stats.wordsRemoved(Collections.singletonList(word(1, "read")));
+        stats.wordsRemoved(Collections.singletonList(word(1, "read")));
+        Assert.assertEquals(1, stats.getCount());
+    }
+}
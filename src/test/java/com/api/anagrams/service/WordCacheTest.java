@@ -0,0 +1,54 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class WordCacheTest {
+
+    private static Word word(long id, String value) {
+        Word w = new Word();
+        w.setId(id);
+        w.setValue(value);
+
+        return w;
+    }
+
+    private static WordCache cache() {
+        WordCache cache = new WordCache();
+        ReflectionTestUtils.setField(cache, "meterRegistry", new SimpleMeterRegistry());
+        cache.init();
+
+        return cache;
+    }
+
+    private static Map<?, ?> casesByValue(WordCache cache) {
+        return (Map<?, ?>) ReflectionTestUtils.getField(cache, "casesByValue");
+    }
+
+    @Test
+    public void testChangeDropsEveryCase() {
+        WordCache cache = cache();
+        Word read = word(1, "read");
+        Assert.assertEquals(1, cache.getByValue("Read", () -> read).getId());
+        Assert.assertEquals(1, cache.getByValue("READ", () -> read).getId());
+        Assert.assertEquals(2, cache.getByValue("rate", () -> word(2, "rate")).getId());
+        Assert.assertNull(cache.getByValue("reed", () -> null));
+        Assert.assertEquals(2, casesByValue(cache).size());
+
+        cache.wordsRemoved(Collections.singletonList(read));
+
+        Assert.assertNull(cache.getByValue("Read", () -> null));
+        Assert.assertNull(cache.getByValue("READ", () -> null));
+        Assert.assertEquals(2, cache.getByValue("rate", () -> null).getId());
+        Assert.assertEquals(1, casesByValue(cache).size());
+
+        cache.cleared();
+        Assert.assertTrue(casesByValue(cache).isEmpty());
+    }
+}
@@ -0,0 +1,74 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import com.api.anagrams.repository.WordRepository;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WordFilterTest {
+
+    private static Word word(long id, String value) {
+        Word w = new Word();
+        w.setId(id);
+        w.setValue(value);
+
+        return w;
+    }
+
+    private static WordFilter filter(long expectedInsertions) {
+        WordFilter filter = new WordFilter();
+        ReflectionTestUtils.setField(filter, "wordRepository", Mockito.mock(WordRepository.class));
+        ReflectionTestUtils.setField(filter, "expectedInsertions", expectedInsertions);
+        filter.init();
+
+        return filter;
+    }
+
+    @Test
+    public void testNoFalseNegatives() {
+        WordFilter filter = filter(1000000);
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < 10000; i++)
+            words.add(word(i, "Word" + i));
+        filter.wordsAdded(words);
+
+        for (int i = 0; i < 10000; i++)
+            Assert.assertTrue(filter.mightContain("word" + i));
+        Assert.assertTrue(filter.mightContain("WORD42"));
+    }
+
+    @Test
+    public void testFalsePositiveRate() {
+        WordFilter filter = filter(100000);
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < 100000; i++)
+            words.add(word(i, "word" + i));
+        filter.wordsAdded(words);
+
+        int positives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("missing" + i))
+                positives++;
+        }
+        Assert.assertTrue(positives > 0);
+        Assert.assertTrue(positives < 100000 * 0.02);
+    }
+
+    @Test
+    public void testDeletedWordsStayUntilRebuild() {
+        WordFilter filter = filter(1000000);
+        List<Word> words = new ArrayList<>();
+        words.add(word(1, "read"));
+        filter.wordsAdded(words);
+        filter.wordsRemoved(words);
+        filter.cleared();
+
+        Assert.assertTrue(filter.mightContain("read"));
+        Assert.assertFalse(filter.mightContain("dare"));
+    }
+}
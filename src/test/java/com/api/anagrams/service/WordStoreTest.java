@@ -0,0 +1,149 @@
+package com.api.anagrams.service;
+
+import com.api.anagrams.model.Word;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+public class WordStoreTest {
+
+    private static Word word(long id, String value) {
+        Word w = new Word();
+        w.setId(id);
+        w.setValue(value);
+
+        return w;
+    }
+
+    private static List<String> values(List<Word> words) {
+        List<String> values = new ArrayList<>();
+        for (Word w : words)
+            values.add(w.getValue());
+
+        return values;
+    }
+
+    @Test
+    public void testPageInIdOrder() {
+        WordStore store = new WordStore();
+        store.wordsAdded(Arrays.asList(word(3, "rat"), word(1, "read"), word(2, "tar")));
+        store.wordsAdded(Arrays.asList(word(5, "listen"), word(4, "silent")));
+
+        Assert.assertEquals(5, store.size());
+        Assert.assertEquals(Arrays.asList("read", "tar", "rat"), values(store.page(0, 3)));
+        Assert.assertEquals(Arrays.asList("silent", "listen"), values(store.page(3, 10)));
+        Assert.assertEquals("art", store.page(2, 1).get(0).getSignature());
+    }
+
+    @Test
+    public void testValueRank() {
+        WordStore store = new WordStore();
+        store.wordsAdded(Arrays.asList(word(1, "read"), word(2, "tar"), word(3, "rat"), word(4, "silent")));
+        store.wordsAdded(Arrays.asList(word(5, "listen"), word(6, "xray"), word(7, "enlist")));
+
+        Assert.assertEquals("enlist", store.getByValueRank(0).getValue());
+        Assert.assertEquals("read", store.getByValueRank(3).getValue());
+        Assert.assertEquals("xray", store.getByValueRank(6).getValue());
+        Assert.assertNull(store.getByValueRank(7));
+    }
+
+    @Test
+    public void testRemoveAndCompact() {
+        WordStore store = new WordStore();
+        store.wordsAdded(Arrays.asList(word(1, "read"), word(2, "tar"), word(3, "rat"), word(4, "silent")));
+        store.wordsRemoved(Arrays.asList(word(1, "read"), word(3, "rat"), word(4, "silent")));
+
+        Assert.assertEquals(1, store.size());
+        Assert.assertEquals(Arrays.asList("tar"), values(store.page(0, 10)));
+        Assert.assertEquals("tar", store.getByValueRank(0).getValue());
+
+        store.wordsAdded(Arrays.asList(word(2, "tar"), word(8, "art")));
+
+        Assert.assertEquals(Arrays.asList("tar", "art"), values(store.page(0, 10)));
+        Assert.assertEquals("art", store.getByValueRank(0).getValue());
+
+        store.cleared();
+
+        Assert.assertEquals(0, store.size());
+        Assert.assertTrue(store.page(0, 10).isEmpty());
+    }
+
+    @Test
+    public void testAnagramsInIdOrder() {
+        WordStore store = new WordStore();
+        store.wordsAdded(Arrays.asList(word(1, "listen"), word(2, "rat"), word(3, "Silent")));
+        store.wordsAdded(Arrays.asList(word(4, "enlist"), word(5, "tinsel")));
+        store.wordsRemoved(Collections.singletonList(word(4, "enlist")));
+
+        Assert.assertEquals(Arrays.asList("listen", "Silent", "tinsel"), store.getAnagrams("inlets", 10));
+        Assert.assertEquals(Arrays.asList("listen", "Silent"), store.getAnagrams("inlets", 2));
+        Assert.assertEquals(Arrays.asList("rat"), store.getAnagrams("TAR", 10));
+        Assert.assertTrue(store.getAnagrams("xray", 10).isEmpty());
+    }
+
+    @Test
+    public void testBulkLoadAndMerge() {
+        WordStore store = new WordStore();
+        List<Word> words = new ArrayList<>();
+        for (int id = 1; id <= 10000; id++)
+            words.add(word(id, "w" + Integer.toString(id * 7919 % 10007, 36)));
+        store.wordsAdded(words.subList(0, 6000));
+        store.wordsAdded(words.subList(6000, 10000));
+        store.wordsAdded(Arrays.asList(word(10001, "tar"), word(10002, "rat")));
+
+        Assert.assertEquals(10002, store.size());
+        Assert.assertEquals(Arrays.asList("tar", "rat"), store.getAnagrams("art", 10));
+        Assert.assertEquals(Arrays.asList("tar", "rat"), values(store.page(10000, 10)));
+        Assert.assertEquals("rat", store.getByValueRank(0).getValue());
+        Assert.assertEquals("tar", store.getByValueRank(1).getValue());
+    }
+
+    @Test
+    public void testIdsSpanningMoreThanAnInt() {
+        WordStore store = new WordStore();
+        List<Word> words = new ArrayList<>();
+        for (int i = 0; i < 5000; i++)
+            words.add(word(i == 0 ? 1 : (1L << 40) + i, "w" + i));
+        store.wordsAdded(words);
+        store.wordsRemoved(Collections.singletonList(word((1L << 40) + 1, "w1")));
+
+        Assert.assertEquals(4999, store.size());
+        Assert.assertEquals(Arrays.asList("w0", "w2"), values(store.page(0, 2)));
+        Assert.assertEquals((1L << 40) + 2, store.page(1, 1).get(0).getId());
+    }
+
+    @Test
+    public void testRandomUpdatesKeepBothOrders() {
+        WordStore store = new WordStore();
+        TreeMap<Long, String> expected = new TreeMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20000; i++) {
+            long id = 1 + random.nextInt(6000);
+            String value = Long.toString(id * 7919 % 10000, 36);
+            if (random.nextInt(3) == 0) {
+                store.wordsRemoved(Collections.singletonList(word(id, value)));
+                expected.remove(id);
+            } else {
+                store.wordsAdded(Collections.singletonList(word(id, value)));
+                expected.put(id, value);
+            }
+        }
+
+        List<String> byValue = new ArrayList<>(expected.values());
+        Collections.sort(byValue);
+        Assert.assertEquals(expected.size(), store.size());
+        Assert.assertEquals(new ArrayList<>(expected.values()), values(store.page(0, 10000)));
+        Assert.assertEquals(new ArrayList<>(expected.tailMap(2500L, false).values()), values(store.page(2500, 10000)));
+        for (int rank = 0; rank < byValue.size(); rank++)
+            Assert.assertEquals(byValue.get(rank), store.getByValueRank(rank).getValue());
+        for (String value : expected.values())
+            Assert.assertTrue(store.getAnagrams(value, 10).contains(value));
+    }
+}
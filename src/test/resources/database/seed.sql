@@ -1,9 +1,8 @@
-CREATE TABLE IF NOT EXISTS words(id INT NOT NULL AUTO_INCREMENT, value VARCHAR (150) NOT NULL);
-INSERT INTO `words` (`id`, `value`) VALUES ('1', 'read');
-INSERT INTO `words` (`id`, `value`) VALUES ('2', 'tar');
-INSERT INTO `words` (`id`, `value`) VALUES ('3', 'rat');
-INSERT INTO `words` (`id`, `value`) VALUES ('4', 'silent');
-INSERT INTO `words` (`id`, `value`) VALUES ('5', 'listen');
-INSERT INTO `words` (`id`, `value`) VALUES ('6', 'xray');
-INSERT INTO `words` (`id`, `value`) VALUES ('7', 'enlist');
-
+CREATE TABLE IF NOT EXISTS words(id INT NOT NULL AUTO_INCREMENT, value VARCHAR (150) NOT NULL, signature VARCHAR (150));
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('1', 'read', 'ader');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('2', 'tar', 'art');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('3', 'rat', 'art');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('4', 'silent', 'eilnst');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('5', 'listen', 'eilnst');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('6', 'xray', 'arxy');
+INSERT INTO `words` (`id`, `value`, `signature`) VALUES ('7', 'enlist', 'eilnst');